@@ -0,0 +1,44 @@
+package com.example.springDemo.aspect;
+
+import com.example.springDemo.service.bulkhead.DatasourceBulkhead;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes every call on a datasource's StudentService through that datasource's bulkhead.
+ * It is ordered inside the cache advice, so cache hits never wait for a permit, and outside
+ * the transaction advice, so a connection is only borrowed once a permit is held
+ * (see {@link com.example.springDemo.config.CacheConfig}).
+ */
+@Aspect
+@Component
+@Order(BulkheadAspect.ORDER)
+public class BulkheadAspect {
+
+  public static final int ORDER = 100;
+
+  private final DatasourceBulkhead postgresBulkhead;
+  private final DatasourceBulkhead mysqlBulkhead;
+
+  @Autowired
+  public BulkheadAspect(@Qualifier("postgresBulkhead") DatasourceBulkhead postgresBulkhead,
+                        @Qualifier("mysqlBulkhead") DatasourceBulkhead mysqlBulkhead) {
+    this.postgresBulkhead = postgresBulkhead;
+    this.mysqlBulkhead = mysqlBulkhead;
+  }
+
+  @Around("bean(postgresStudentService)")
+  public Object aroundPostgres(ProceedingJoinPoint joinPoint) throws Throwable {
+    return postgresBulkhead.execute(joinPoint::proceed);
+  }
+
+  @Around("bean(mysqlStudentService)")
+  public Object aroundMysql(ProceedingJoinPoint joinPoint) throws Throwable {
+    return mysqlBulkhead.execute(joinPoint::proceed);
+  }
+}
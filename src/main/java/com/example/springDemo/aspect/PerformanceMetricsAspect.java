@@ -0,0 +1,225 @@
+package com.example.springDemo.aspect;
+
+import com.example.springDemo.config.SqlStatementCounter;
+import com.example.springDemo.dto.SlowCall;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.metrics.SlowCallLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times controller, StudentService/UserService and repository calls as the
+ * {@code students.method} timer, tagged by layer, datasource, class and method, with a
+ * percentile histogram (visible under {@code /actuator/metrics/students.method}). A call
+ * slower than {@code app.students.metrics.slow-threshold} goes to {@link SlowCallLog}, with
+ * its arguments and the number of SQL statements Hibernate ran during it.
+ *
+ * <p>The aspect is ordered outside the cache and bulkhead advice, so service timings are what
+ * callers see (cache hits and permit waits included). Reactive controller methods are skipped
+ * because they return before any work is done. With {@code app.students.metrics.enabled=false}
+ * the aspect is not registered and the methods are not proxied for it at all.
+ */
+@Aspect
+@Component
+@Order(PerformanceMetricsAspect.ORDER)
+@ConditionalOnProperty(name = "app.students.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class PerformanceMetricsAspect {
+
+  public static final int ORDER = BulkheadAspect.ORDER - 10;
+
+  static final String TIMER_NAME = "students.method";
+
+  private static final String APP_PACKAGE = "com.example.springDemo.";
+  private static final Set<String> SOURCES = Set.of("postgres", "mysql", "all");
+  private static final int MAX_ARGUMENT_LENGTH = 100;
+
+  private final MeterRegistry meterRegistry;
+  private final SlowCallLog slowCallLog;
+  private final long slowThresholdNanos;
+  private final double[] percentiles;
+  private final Duration maxExpectedDuration;
+
+  // Timer 注册一次后缓存，热路径上只有一次 map 查找
+  private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Method, ControllerSource> controllerSources = new ConcurrentHashMap<>();
+
+  private record TimerKey(Class<?> proxyType, Method method, String datasource) {
+  }
+
+  // 控制器的数据源：取名为 source 的参数，否则看方法名（getPostgresStudentById 等）
+  private record ControllerSource(int parameterIndex, String fixed) {
+  }
+
+  @Autowired
+  public PerformanceMetricsAspect(MeterRegistry meterRegistry, SlowCallLog slowCallLog,
+                                  @Value("${app.students.metrics.slow-threshold:500ms}") Duration slowThreshold,
+                                  @Value("${app.students.metrics.percentiles:0.5,0.95,0.99}") double[] percentiles,
+                                  @Value("${app.students.metrics.max-expected-duration:10s}") Duration maxExpectedDuration) {
+    this.meterRegistry = meterRegistry;
+    this.slowCallLog = slowCallLog;
+    this.slowThresholdNanos = slowThreshold.toNanos();
+    this.percentiles = percentiles;
+    this.maxExpectedDuration = maxExpectedDuration;
+  }
+
+  @Around("within(com.example.springDemo.controller..*) && !execution(org.reactivestreams.Publisher+ *(..))")
+  public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(joinPoint, "controller", controllerDatasource(joinPoint));
+  }
+
+  @Around("bean(postgresStudentService) || bean(userServiceImpl)")
+  public Object timePostgresService(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(joinPoint, "service", "postgres");
+  }
+
+  @Around("bean(mysqlStudentService)")
+  public Object timeMysqlService(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(joinPoint, "service", "mysql");
+  }
+
+  @Around("bean(federatedStudentServiceImpl)")
+  public Object timeFederatedService(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(joinPoint, "service", "all");
+  }
+
+  // JPA 仓库和 jdbc 包下的 JDBC 仓库，按 bean 名区分数据源
+  @Around("bean(postgres*Repository) || bean(userRepository)")
+  public Object timePostgresRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(joinPoint, "repository", "postgres");
+  }
+
+  @Around("bean(mysql*Repository)")
+  public Object timeMysqlRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(joinPoint, "repository", "mysql");
+  }
+
+  private Object time(ProceedingJoinPoint joinPoint, String layer, String datasource) throws Throwable {
+    long sqlBefore = SqlStatementCounter.current();
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+      timers.computeIfAbsent(new TimerKey(joinPoint.getThis().getClass(), method, datasource),
+              key -> register(joinPoint, layer, datasource, method))
+          .record(elapsed, TimeUnit.NANOSECONDS);
+      if (elapsed >= slowThresholdNanos) {
+        slowCallLog.record(new SlowCall(Instant.now(), layer, datasource,
+            typeName(joinPoint) + "." + method.getName(), elapsed / 1_000_000.0,
+            SqlStatementCounter.current() - sqlBefore, arguments(joinPoint),
+            failure != null ? failure.getClass().getSimpleName() : null));
+      }
+    }
+  }
+
+  private Timer register(ProceedingJoinPoint joinPoint, String layer, String datasource, Method method) {
+    return Timer.builder(TIMER_NAME)
+        .description("Controller, service and repository call latency")
+        .tag("layer", layer)
+        .tag("datasource", datasource)
+        .tag("class", typeName(joinPoint))
+        .tag("method", method.getName())
+        .publishPercentileHistogram()
+        .publishPercentiles(percentiles)
+        .maximumExpectedValue(maxExpectedDuration)
+        .register(meterRegistry);
+  }
+
+  private String controllerDatasource(ProceedingJoinPoint joinPoint) {
+    MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+    ControllerSource source = controllerSources.computeIfAbsent(signature.getMethod(),
+        method -> resolveControllerSource(signature));
+    if (source.parameterIndex() < 0) {
+      return source.fixed();
+    }
+    Object value = joinPoint.getArgs()[source.parameterIndex()];
+    // 只接受已知取值，避免任意路径参数撑爆标签基数
+    return value instanceof String name && SOURCES.contains(name) ? name : "unknown";
+  }
+
+  private static ControllerSource resolveControllerSource(MethodSignature signature) {
+    String[] names = signature.getParameterNames();
+    for (int i = 0; names != null && i < names.length; i++) {
+      if ("source".equals(names[i])) {
+        return new ControllerSource(i, null);
+      }
+    }
+    String methodName = signature.getName().toLowerCase(Locale.ROOT);
+    String fixed = methodName.contains("postgres") ? "postgres" : methodName.contains("mysql") ? "mysql" : "none";
+    return new ControllerSource(-1, fixed);
+  }
+
+  private static String typeName(ProceedingJoinPoint joinPoint) {
+    Class<?> target = AopUtils.getTargetClass(joinPoint.getTarget());
+    if (target.getName().startsWith(APP_PACKAGE)) {
+      return target.getSimpleName();
+    }
+    // Spring Data 仓库的目标是 SimpleJpaRepository，取代理实现的应用接口
+    for (Class<?> type : joinPoint.getThis().getClass().getInterfaces()) {
+      if (type.getName().startsWith(APP_PACKAGE)) {
+        return type.getSimpleName();
+      }
+    }
+    return joinPoint.getSignature().getDeclaringType().getSimpleName();
+  }
+
+  // 只在慢调用时执行。实体只记类型和 id，不输出 ssn、信用卡号等字段
+  private static Map<String, String> arguments(ProceedingJoinPoint joinPoint) {
+    String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+    Object[] args = joinPoint.getArgs();
+    Map<String, String> arguments = new LinkedHashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      arguments.put(names != null && i < names.length ? names[i] : "arg" + i, describe(args[i]));
+    }
+    return arguments;
+  }
+
+  private static String describe(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?> || value instanceof Temporal) {
+      return value.toString();
+    }
+    if (value instanceof CharSequence text) {
+      return text.length() <= MAX_ARGUMENT_LENGTH
+          ? "\"" + text + "\""
+          : "\"" + text.subSequence(0, MAX_ARGUMENT_LENGTH) + "...\" (" + text.length() + " chars)";
+    }
+    if (value instanceof Collection<?> collection) {
+      return value.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+    }
+    if (value instanceof Student student) {
+      return "Student[id=" + student.getId() + "]";
+    }
+    return value.getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.springDemo.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Encoder/decoder for service-to-service callers of the student endpoints. Send
+ * {@link #getMediaType()} as {@code Accept} (and as {@code Content-Type} on writes), then
+ * decode the body with this codec. Dates are ISO strings and unknown properties are
+ * ignored, matching the server's Spring Boot ObjectMapper, so either side can add fields
+ * first. Instances are thread-safe.
+ */
+public class StudentWireCodec {
+
+  private final StudentWireFormat format;
+  private final ObjectMapper objectMapper;
+
+  public StudentWireCodec(StudentWireFormat format) {
+    this.format = format;
+    this.objectMapper = new ObjectMapper(format.newFactory())
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+
+  public String getMediaType() {
+    return format.getMediaType();
+  }
+
+  public byte[] encode(Object value) throws IOException {
+    return objectMapper.writeValueAsBytes(value);
+  }
+
+  public <T> T decode(byte[] body, Class<T> type) throws IOException {
+    return objectMapper.readValue(body, type);
+  }
+
+  public <T> List<T> decodeList(byte[] body, Class<T> elementType) throws IOException {
+    JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    return objectMapper.readValue(body, listType);
+  }
+}
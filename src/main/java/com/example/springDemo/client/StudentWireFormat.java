@@ -0,0 +1,35 @@
+package com.example.springDemo.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * Wire formats accepted and produced by the student endpoints, selected with
+ * {@code Accept} / {@code Content-Type}. CBOR and Smile carry the same fields as JSON in a
+ * binary encoding. Smile also back-references repeated property names, which makes
+ * long lists noticeably smaller.
+ */
+public enum StudentWireFormat {
+  JSON("application/json", JsonFactory::new),
+  CBOR("application/cbor", CBORFactory::new),
+  SMILE("application/x-jackson-smile", SmileFactory::new);
+
+  private final String mediaType;
+  private final Supplier<JsonFactory> factory;
+
+  StudentWireFormat(String mediaType, Supplier<JsonFactory> factory) {
+    this.mediaType = mediaType;
+    this.factory = factory;
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  public JsonFactory newFactory() {
+    return factory.get();
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.springDemo.config;
+
+import com.example.springDemo.client.StudentWireFormat;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR and Smile message converters built from Spring Boot's ObjectMapper builder, so
+ * they serialize exactly like the JSON converter (ISO dates, same modules). Boot puts
+ * them in place of Spring MVC's defaults, and content negotiation then picks the format
+ * from {@code Accept} / {@code Content-Type} on every endpoint without a fixed
+ * {@code produces}. Clients can use {@link com.example.springDemo.client.StudentWireCodec}.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(
+        builder.factory(StudentWireFormat.CBOR.newFactory()).build());
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(
+        builder.factory(StudentWireFormat.SMILE.newFactory()).build());
+  }
+}
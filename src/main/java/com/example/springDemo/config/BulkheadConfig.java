@@ -0,0 +1,30 @@
+package com.example.springDemo.config;
+
+import com.example.springDemo.service.bulkhead.DatasourceBulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// 每个数据源一个 bulkhead，并发上限默认等于各自的连接池大小（见 BulkheadAspect）
+@Configuration
+public class BulkheadConfig {
+
+  @Bean(name = "postgresBulkhead")
+  public DatasourceBulkhead postgresBulkhead(
+      @Value("${app.students.bulkhead.postgres.max-concurrent:5}") int maxConcurrent,
+      @Value("${app.students.bulkhead.postgres.max-wait:500ms}") Duration maxWait,
+      MeterRegistry meterRegistry) {
+    return new DatasourceBulkhead("postgres", maxConcurrent, maxWait, meterRegistry);
+  }
+
+  @Bean(name = "mysqlBulkhead")
+  public DatasourceBulkhead mysqlBulkhead(
+      @Value("${app.students.bulkhead.mysql.max-concurrent:5}") int maxConcurrent,
+      @Value("${app.students.bulkhead.mysql.max-wait:500ms}") Duration maxWait,
+      MeterRegistry meterRegistry) {
+    return new DatasourceBulkhead("mysql", maxConcurrent, maxWait, meterRegistry);
+  }
+}
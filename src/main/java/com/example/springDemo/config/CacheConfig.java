@@ -0,0 +1,43 @@
+package com.example.springDemo.config;
+
+import com.example.springDemo.aspect.BulkheadAspect;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caffeine caches are created by Spring Boot from {@code spring.cache.*}; listing them in
+ * {@code spring.cache.cache-names} makes the actuator bind their hit/miss/eviction metrics
+ * ({@code /actuator/metrics/cache.gets}, {@code cache.evictions}) at startup.
+ *
+ * <p>The cache advice is ordered before {@link BulkheadAspect}, so hits are served without
+ * taking a datasource permit.
+ */
+@Configuration
+@EnableCaching(order = BulkheadAspect.ORDER - 1)
+public class CacheConfig {
+
+  // 每个数据源一个命名空间，两个库的 id 互不相关
+  public static final String POSTGRES_STUDENTS = "postgresStudents";
+  public static final String MYSQL_STUDENTS = "mysqlStudents";
+
+  public static final String USERS = "users";
+
+  // 用户缓存有自己的大小和 TTL，不走 spring.cache.caffeine.spec
+  @Bean
+  public CacheManagerCustomizer<CaffeineCacheManager> userCacheCustomizer(
+      @Value("${app.users.cache.max-size:10000}") long maxSize,
+      @Value("${app.users.cache.ttl:5m}") Duration ttl) {
+    return cacheManager -> cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build());
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.springDemo.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * HS256 signing key, encoder and decoder for the API tokens issued by
+ * {@code POST /api/auth/token}. Verification is a local HMAC check with a decoder built once.
+ * There is no JWK endpoint and no network call, so any node with the same
+ * {@code app.security.jwt.secret} accepts the token.
+ */
+@Configuration
+public class JwtConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(JwtConfig.class);
+
+  private static final String HMAC = "HmacSHA256";
+
+  @Bean
+  public SecretKey jwtSigningKey(@Value("${app.security.jwt.secret:}") String secret) {
+    if (secret.isBlank()) {
+      // 未配置时每次启动随机生成：只适合单节点，重启后旧 token 全部失效
+      byte[] random = new byte[32];
+      new SecureRandom().nextBytes(random);
+      logger.warn("app.security.jwt.secret is not set, using a random per-process key; "
+          + "tokens will not be accepted by other nodes or after a restart");
+      return new SecretKeySpec(random, HMAC);
+    }
+    byte[] key = Base64.getDecoder().decode(secret);
+    if (key.length < 32) {
+      throw new IllegalStateException("app.security.jwt.secret must be at least 256 bits (32 bytes, base64)");
+    }
+    return new SecretKeySpec(key, HMAC);
+  }
+
+  @Bean
+  public JwtEncoder jwtEncoder(SecretKey jwtSigningKey) {
+    return new NimbusJwtEncoder(new ImmutableSecret<>(jwtSigningKey));
+  }
+
+  @Bean
+  public JwtDecoder jwtDecoder(SecretKey jwtSigningKey, @Value("${app.security.jwt.issuer:springDemo}") String issuer) {
+    NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(jwtSigningKey)
+        .macAlgorithm(MacAlgorithm.HS256)
+        .build();
+    decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+    return decoder;
+  }
+}
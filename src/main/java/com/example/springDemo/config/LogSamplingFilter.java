@@ -0,0 +1,103 @@
+package com.example.springDemo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that samples and rate-limits one logger category (a logger name and its
+ * children). It lets 1 in {@code sampleRate} events through, and at most {@code maxPerSecond}
+ * of those per second. WARN and ERROR always pass. Declared in logback-spring.xml, one
+ * {@code <turboFilter>} per category:
+ * <pre>
+ *   &lt;turboFilter class="com.example.springDemo.config.LogSamplingFilter"&gt;
+ *     &lt;category&gt;org.hibernate.SQL&lt;/category&gt;
+ *     &lt;sampleRate&gt;100&lt;/sampleRate&gt;
+ *     &lt;maxPerSecond&gt;50&lt;/maxPerSecond&gt;
+ *   &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+  private String category;
+  private int sampleRate = 1;
+  private int maxPerSecond = Integer.MAX_VALUE;
+
+  private final AtomicLong seen = new AtomicLong();
+  // 高位存当前秒，低 32 位存本秒已放行条数
+  private final AtomicLong window = new AtomicLong();
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    // format == null 是 isDebugEnabled() 之类的级别检查，不计入采样
+    // 级别用 getEffectiveLevel 判断：isEnabledFor 会再次调用 turbo filter
+    if (format == null || level.isGreaterOrEqual(Level.WARN) || !inCategory(logger.getName())
+        || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    if (sampleRate > 1 && seen.getAndIncrement() % sampleRate != 0) {
+      return FilterReply.DENY;
+    }
+    return acquire() ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+
+  private boolean inCategory(String name) {
+    return name.startsWith(category)
+        && (name.length() == category.length() || name.charAt(category.length()) == '.');
+  }
+
+  private boolean acquire() {
+    if (maxPerSecond == Integer.MAX_VALUE) {
+      return true;
+    }
+    long second = System.currentTimeMillis() / 1000;
+    while (true) {
+      long current = window.get();
+      long next = (current >>> 32) == second ? current + 1 : (second << 32) | 1;
+      if ((int) next > maxPerSecond) {
+        return false;
+      }
+      if (window.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public void start() {
+    if (category == null || category.isEmpty()) {
+      addError("No category set for LogSamplingFilter " + getName());
+      return;
+    }
+    super.start();
+  }
+
+  // Getters and Setters (logback 按属性名注入)
+  public String getCategory() {
+    return category;
+  }
+
+  public void setCategory(String category) {
+    this.category = category;
+  }
+
+  public int getSampleRate() {
+    return sampleRate;
+  }
+
+  public void setSampleRate(int sampleRate) {
+    this.sampleRate = Math.max(1, sampleRate);
+  }
+
+  public int getMaxPerSecond() {
+    return maxPerSecond;
+  }
+
+  public void setMaxPerSecond(int maxPerSecond) {
+    this.maxPerSecond = maxPerSecond > 0 ? maxPerSecond : Integer.MAX_VALUE;
+  }
+}
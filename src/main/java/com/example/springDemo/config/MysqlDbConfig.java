@@ -1,6 +1,11 @@
 package com.example.springDemo.config;
 
+import com.example.springDemo.repository.jdbc.StudentJdbcBatchRepository;
+import com.example.springDemo.repository.jdbc.StudentJdbcSearchRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
@@ -13,6 +18,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,18 +31,42 @@ import java.util.Map;
 )
 public class MysqlDbConfig {
 
-  @Bean(name = "mysqlDataSource")
+  @Bean(name = "mysqlPrimaryDataSource")
   @ConfigurationProperties(prefix = "spring.datasource.mysql")
-  public DataSource dataSource() {
+  public DataSource primaryDataSource() {
+    return DataSourceBuilder.create().build();
+  }
+
+  // 只有配置了 spring.datasource.mysql-replica.jdbc-url 才创建只读副本
+  @Bean(name = "mysqlReplicaDataSource")
+  @ConditionalOnProperty(prefix = "spring.datasource.mysql-replica", name = "jdbc-url")
+  @ConfigurationProperties(prefix = "spring.datasource.mysql-replica")
+  public DataSource replicaDataSource() {
     return DataSourceBuilder.create().build();
   }
 
+  // 其余 bean 都用这个数据源：有副本时按事务是否只读路由，没有副本时就是主库本身
+  @Bean(name = "mysqlDataSource")
+  public DataSource dataSource(
+      @Qualifier("mysqlPrimaryDataSource") DataSource primaryDataSource,
+      @Qualifier("mysqlReplicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+      @Value("${app.datasource.read-your-writes-window:2s}") Duration readYourWritesWindow) {
+    DataSource replica = replicaDataSource.getIfAvailable();
+    return replica == null
+        ? primaryDataSource
+        : ReplicaRoutingDataSource.create("mysql", primaryDataSource, replica, readYourWritesWindow);
+  }
+
   @Bean(name = "mysqlEntityManagerFactory")
   public LocalContainerEntityManagerFactoryBean entityManagerFactory(
       EntityManagerFactoryBuilder builder,
-      @Qualifier("mysqlDataSource") DataSource dataSource) {
+      @Qualifier("mysqlDataSource") DataSource dataSource,
+      @Value("${app.students.sql-stats.enabled:true}") boolean sqlStatistics) {
     Map<String, Object> properties = new HashMap<>();
     properties.put("hibernate.hbm2ddl.auto", "update");
+    properties.put("hibernate.session_factory.statement_inspector", new SqlStatementCounter());
+    properties.put("hibernate.generate_statistics", sqlStatistics);
+    properties.put("hibernate.stats.factory", SqlStatementCounter.statisticsFactory());
 //    properties.put("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect");
 
     return builder
@@ -52,4 +82,18 @@ public class MysqlDbConfig {
       @Qualifier("mysqlEntityManagerFactory") LocalContainerEntityManagerFactoryBean entityManagerFactory) {
     return new JpaTransactionManager(entityManagerFactory.getObject());
   }
-}
\ No newline at end of file
+
+  @Bean(name = "mysqlStudentBatchRepository")
+  public StudentJdbcBatchRepository studentBatchRepository(
+      @Qualifier("mysqlDataSource") DataSource dataSource,
+      @Qualifier("mysqlTransactionManager") PlatformTransactionManager transactionManager,
+      @Value("${app.students.bulk.batch-size:500}") int batchSize,
+      @Value("${app.students.bulk.chunk-size:5000}") int chunkSize) {
+    return new StudentJdbcBatchRepository(dataSource, transactionManager, batchSize, chunkSize);
+  }
+
+  @Bean(name = "mysqlStudentSearchRepository")
+  public StudentJdbcSearchRepository studentSearchRepository(@Qualifier("mysqlDataSource") DataSource dataSource) {
+    return new StudentJdbcSearchRepository(dataSource);
+  }
+}
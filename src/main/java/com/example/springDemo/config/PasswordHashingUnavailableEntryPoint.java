@@ -0,0 +1,40 @@
+package com.example.springDemo.config;
+
+import com.example.springDemo.service.password.PasswordHashingUnavailableException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Answers 503 with {@code Retry-After} when a login failed only because password hashing was
+ * saturated ({@link PasswordHashingUnavailableException}). Every other failure goes to the
+ * delegate, e.g. the HTTP Basic 401 challenge.
+ */
+public class PasswordHashingUnavailableEntryPoint implements AuthenticationEntryPoint {
+
+  private final AuthenticationEntryPoint delegate;
+  private final String retryAfterSeconds;
+
+  public PasswordHashingUnavailableEntryPoint(AuthenticationEntryPoint delegate, Duration retryAfter) {
+    this.delegate = delegate;
+    // Retry-After 只接受整秒，至少 1 秒
+    this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+  }
+
+  @Override
+  public void commence(HttpServletRequest request, HttpServletResponse response,
+                       AuthenticationException authException) throws IOException, ServletException {
+    if (authException instanceof PasswordHashingUnavailableException) {
+      response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+      response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, authException.getMessage());
+      return;
+    }
+    delegate.commence(request, response, authException);
+  }
+}
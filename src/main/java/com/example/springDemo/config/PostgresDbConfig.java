@@ -1,6 +1,12 @@
 package com.example.springDemo.config;
 
+import com.example.springDemo.repository.jdbc.StudentJdbcBatchRepository;
+import com.example.springDemo.repository.jdbc.StudentJdbcSearchRepository;
+import com.example.springDemo.repository.jdbc.StudentPgCopyRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
@@ -14,6 +20,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,20 +33,44 @@ import java.util.Map;
 )
 public class PostgresDbConfig {
 
-  @Primary
-  @Bean(name = "postgresDataSource")
+  @Bean(name = "postgresPrimaryDataSource")
   @ConfigurationProperties(prefix = "spring.datasource.postgres")
-  public DataSource dataSource() {
+  public DataSource primaryDataSource() {
+    return DataSourceBuilder.create().build();
+  }
+
+  // 只有配置了 spring.datasource.postgres-replica.jdbc-url 才创建只读副本
+  @Bean(name = "postgresReplicaDataSource")
+  @ConditionalOnProperty(prefix = "spring.datasource.postgres-replica", name = "jdbc-url")
+  @ConfigurationProperties(prefix = "spring.datasource.postgres-replica")
+  public DataSource replicaDataSource() {
     return DataSourceBuilder.create().build();
   }
 
+  // 其余 bean 都用这个数据源：有副本时按事务是否只读路由，没有副本时就是主库本身
+  @Primary
+  @Bean(name = "postgresDataSource")
+  public DataSource dataSource(
+      @Qualifier("postgresPrimaryDataSource") DataSource primaryDataSource,
+      @Qualifier("postgresReplicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+      @Value("${app.datasource.read-your-writes-window:2s}") Duration readYourWritesWindow) {
+    DataSource replica = replicaDataSource.getIfAvailable();
+    return replica == null
+        ? primaryDataSource
+        : ReplicaRoutingDataSource.create("postgres", primaryDataSource, replica, readYourWritesWindow);
+  }
+
   @Primary
   @Bean(name = "postgresEntityManagerFactory")
   public LocalContainerEntityManagerFactoryBean entityManagerFactory(
       EntityManagerFactoryBuilder builder,
-      @Qualifier("postgresDataSource") DataSource dataSource) {
+      @Qualifier("postgresDataSource") DataSource dataSource,
+      @Value("${app.students.sql-stats.enabled:true}") boolean sqlStatistics) {
     Map<String, Object> properties = new HashMap<>();
     properties.put("hibernate.hbm2ddl.auto", "update");
+    properties.put("hibernate.session_factory.statement_inspector", new SqlStatementCounter());
+    properties.put("hibernate.generate_statistics", sqlStatistics);
+    properties.put("hibernate.stats.factory", SqlStatementCounter.statisticsFactory());
 //    properties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
 
     return builder
@@ -56,4 +87,25 @@ public class PostgresDbConfig {
       @Qualifier("postgresEntityManagerFactory") LocalContainerEntityManagerFactoryBean entityManagerFactory) {
     return new JpaTransactionManager(entityManagerFactory.getObject());
   }
-}
\ No newline at end of file
+
+  @Bean(name = "postgresStudentBatchRepository")
+  public StudentJdbcBatchRepository studentBatchRepository(
+      @Qualifier("postgresDataSource") DataSource dataSource,
+      @Qualifier("postgresTransactionManager") PlatformTransactionManager transactionManager,
+      @Value("${app.students.bulk.batch-size:500}") int batchSize,
+      @Value("${app.students.bulk.chunk-size:5000}") int chunkSize) {
+    return new StudentJdbcBatchRepository(dataSource, transactionManager, batchSize, chunkSize);
+  }
+
+  @Bean(name = "postgresStudentCopyRepository")
+  public StudentPgCopyRepository studentCopyRepository(
+      @Qualifier("postgresDataSource") DataSource dataSource,
+      @Qualifier("postgresTransactionManager") PlatformTransactionManager transactionManager) {
+    return new StudentPgCopyRepository(dataSource, transactionManager);
+  }
+
+  @Bean(name = "postgresStudentSearchRepository")
+  public StudentJdbcSearchRepository studentSearchRepository(@Qualifier("postgresDataSource") DataSource dataSource) {
+    return new StudentJdbcSearchRepository(dataSource);
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.springDemo.config;
+
+import com.example.springDemo.service.ReactiveStudentService;
+import com.example.springDemo.service.impl.ReactiveStudentServiceImpl;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC connection pools for the reactive routes, one per datasource, configured from
+ * {@code spring.r2dbc.postgres.*} / {@code spring.r2dbc.mysql.*}. They are separate from
+ * the Hikari pools, so both stacks can be load-tested side by side. Declaring the pools
+ * here makes Spring Boot skip its single {@code spring.r2dbc.url} auto-configuration.
+ */
+@Configuration
+public class R2dbcConfig {
+
+  @Primary
+  @Bean(name = "postgresConnectionFactory", destroyMethod = "dispose")
+  public ConnectionPool postgresConnectionFactory(
+      @Value("${spring.r2dbc.postgres.url}") String url,
+      @Value("${spring.r2dbc.postgres.username}") String username,
+      @Value("${spring.r2dbc.postgres.password}") String password,
+      @Value("${spring.r2dbc.postgres.pool.max-size:5}") int maxSize) {
+    return connectionPool(url, username, password, maxSize);
+  }
+
+  @Bean(name = "mysqlConnectionFactory", destroyMethod = "dispose")
+  public ConnectionPool mysqlConnectionFactory(
+      @Value("${spring.r2dbc.mysql.url}") String url,
+      @Value("${spring.r2dbc.mysql.username}") String username,
+      @Value("${spring.r2dbc.mysql.password}") String password,
+      @Value("${spring.r2dbc.mysql.pool.max-size:5}") int maxSize) {
+    return connectionPool(url, username, password, maxSize);
+  }
+
+  @Bean(name = "postgresReactiveStudentService")
+  public ReactiveStudentService postgresReactiveStudentService(
+      @Qualifier("postgresConnectionFactory") ConnectionPool connectionFactory) {
+    return new ReactiveStudentServiceImpl(DatabaseClient.create(connectionFactory));
+  }
+
+  @Bean(name = "mysqlReactiveStudentService")
+  public ReactiveStudentService mysqlReactiveStudentService(
+      @Qualifier("mysqlConnectionFactory") ConnectionPool connectionFactory) {
+    return new ReactiveStudentServiceImpl(DatabaseClient.create(connectionFactory));
+  }
+
+  private static ConnectionPool connectionPool(String url, String username, String password, int maxSize) {
+    return new ConnectionPool(ConnectionPoolConfiguration.builder(
+            ConnectionFactoryBuilder.withUrl(url).username(username).password(password).build())
+        .initialSize(1)
+        .maxSize(maxSize)
+        .build());
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.springDemo.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-your-writes state of the client behind the current request, used by
+ * {@link ReplicaRoutingDataSource}. After a client's read-write transaction on a datasource,
+ * that client's reads on the same datasource stay on the primary until the window ends. Other
+ * clients keep reading from the replica. The state travels with the client in a
+ * {@code ryw-<datasource>} cookie, which holds the end of the window in epoch millis and is
+ * maintained by {@link ReadYourWritesFilter}. Without a bound context (work outside a request,
+ * or on another thread) nothing is pinned.
+ */
+public final class ReadYourWrites {
+
+  static final String COOKIE_PREFIX = "ryw-";
+
+  private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+  // 数据源名 -> 在此时间点（epoch 毫秒）之前读主库
+  private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+  private final BiConsumer<String, Duration> onWrite;
+
+  ReadYourWrites(Map<String, Long> pinnedUntil, BiConsumer<String, Duration> onWrite) {
+    this.pinnedUntil.putAll(pinnedUntil);
+    this.onWrite = onWrite;
+  }
+
+  static void bind(ReadYourWrites context) {
+    CURRENT.set(context);
+  }
+
+  static void clear() {
+    CURRENT.remove();
+  }
+
+  static boolean isPinned(String datasource, Duration window) {
+    ReadYourWrites context = CURRENT.get();
+    if (context == null) {
+      return false;
+    }
+    Long until = context.pinnedUntil.get(datasource);
+    long now = System.currentTimeMillis();
+    // cookie 由客户端回传，超过一个窗口的值不可信，不让它无限期占用主库
+    return until != null && until > now && until <= now + window.toMillis();
+  }
+
+  static void recordWrite(String datasource, Duration window) {
+    ReadYourWrites context = CURRENT.get();
+    if (context != null) {
+      context.pinnedUntil.put(datasource, System.currentTimeMillis() + window.toMillis());
+      context.onWrite.accept(datasource, window);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.springDemo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binds the {@link ReadYourWrites} context of the calling client for the request: the
+ * {@code ryw-<datasource>} cookies it sent in, and a cookie set on the response when the
+ * request itself writes. The cookie is only issued when a replica is configured, because only
+ * {@link ReplicaRoutingDataSource} records writes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    Set<String> announced = new HashSet<>();
+    ReadYourWrites.bind(new ReadYourWrites(pinnedUntil(request), (datasource, window) -> {
+      // 同一请求里每个数据源只发一次；响应已提交（流式输出）时就只对本请求生效
+      if (announced.add(datasource) && !response.isCommitted()) {
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(datasource, window).toString());
+      }
+    }));
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      ReadYourWrites.clear();
+    }
+  }
+
+  private static Map<String, Long> pinnedUntil(HttpServletRequest request) {
+    Map<String, Long> pinnedUntil = new HashMap<>();
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return pinnedUntil;
+    }
+    for (Cookie cookie : cookies) {
+      if (cookie.getName().startsWith(ReadYourWrites.COOKIE_PREFIX)) {
+        try {
+          pinnedUntil.put(cookie.getName().substring(ReadYourWrites.COOKIE_PREFIX.length()),
+              Long.parseLong(cookie.getValue()));
+        } catch (NumberFormatException e) {
+          // 无效的 cookie 直接忽略
+        }
+      }
+    }
+    return pinnedUntil;
+  }
+
+  private static ResponseCookie cookie(String datasource, Duration window) {
+    return ResponseCookie.from(ReadYourWrites.COOKIE_PREFIX + datasource,
+            Long.toString(System.currentTimeMillis() + window.toMillis()))
+        .path("/")
+        .httpOnly(true)
+        .sameSite("Lax")
+        .maxAge(Duration.ofSeconds(Math.max(1, (window.toMillis() + 999) / 1000)))
+        .build();
+  }
+}
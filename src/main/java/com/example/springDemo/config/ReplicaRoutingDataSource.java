@@ -0,0 +1,59 @@
+package com.example.springDemo.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica, and everything else to the
+ * primary. A read-write transaction counts as a write. For {@code readYourWritesWindow}
+ * after one, read-only transactions of the same client also stay on the primary, so it does
+ * not read stale data from a lagging replica right after it wrote. Only the writing client is
+ * pinned, see {@link ReadYourWrites}. Every other client keeps reading from the replica.
+ *
+ * <p>Always used through {@link #create}, which wraps it in a
+ * {@link LazyConnectionDataSourceProxy}. JpaTransactionManager asks for the connection when
+ * the transaction begins, before the read-only flag is bound to the thread. The proxy
+ * delays choosing the target until the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  private enum Target { PRIMARY, REPLICA }
+
+  private final String name;
+  private final Duration readYourWritesWindow;
+
+  ReplicaRoutingDataSource(String name, Duration readYourWritesWindow) {
+    this.name = name;
+    this.readYourWritesWindow = readYourWritesWindow;
+  }
+
+  /**
+   * @param name the datasource name, e.g. {@code postgres}, which keys the client's
+   *             read-your-writes cookie
+   */
+  public static DataSource create(String name, DataSource primary, DataSource replica,
+                                  Duration readYourWritesWindow) {
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(name, readYourWritesWindow);
+    routing.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    routing.setDefaultTargetDataSource(primary);
+    routing.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return ReadYourWrites.isPinned(name, readYourWritesWindow) ? Target.PRIMARY : Target.REPLICA;
+    }
+    // 读写事务视为当前客户端的写；没有事务的连接（启动时的元数据、初始化脚本）直接走主库，不计为写
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      ReadYourWrites.recordWrite(name, readYourWritesWindow);
+    }
+    return Target.PRIMARY;
+  }
+}
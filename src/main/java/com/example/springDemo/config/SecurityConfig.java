@@ -1,39 +1,96 @@
 package com.example.springDemo.config;
 
-import static org.springframework.security.config.Customizer.withDefaults;
-
 import com.example.springDemo.service.impl.UserServiceImpl;
+import com.example.springDemo.service.password.BoundedPasswordEncoder;
+import com.example.springDemo.service.password.CachingAuthenticationProvider;
+import com.example.springDemo.service.password.OverloadAwareAuthenticationProvider;
+import com.example.springDemo.service.password.PasswordHashingUnavailableException;
+import com.example.springDemo.service.token.JwtAuthoritiesConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.DelegatingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+  private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
   // 删除字段注入 - 因为这样会导致循环依赖问题 -> 使用方法注入替代字段注入
   // @Autowired
   // private UserServiceImpl userService;
 
+  /**
+   * {@code /api/**}: Bearer tokens from {@code POST /api/auth/token}, verified locally by
+   * {@link JwtConfig#jwtDecoder}, with HTTP Basic kept for the token endpoint and existing clients.
+   * API calls never create a session. A session that already exists, from the browser UI, is
+   * still honoured, so the links on the home page keep working. A Basic login that cannot be
+   * checked because password hashing is saturated gets 503 with {@code Retry-After}.
+   */
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity http, UserServiceImpl userService) throws Exception {
+  @Order(1)
+  public SecurityFilterChain apiSecurityFilterChain(
+      HttpSecurity http, JwtDecoder jwtDecoder,
+      @Value("${app.security.password.hashing.retry-after:1s}") Duration retryAfter) throws Exception {
+    http
+        .securityMatcher("/api/**")
+        .csrf(csrf -> csrf.disable())
+        .authorizeHttpRequests(auth -> auth
+            .anyRequest().authenticated() // 只要认证即可，不需要ADMIN角色
+        )
+        // NEVER 而不是 STATELESS：不创建 session，但浏览器已有的登录 session 仍然有效
+        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.NEVER))
+        .oauth2ResourceServer(rs -> rs
+            .jwt(jwt -> jwt
+                .decoder(jwtDecoder)
+                .jwtAuthenticationConverter(new JwtAuthoritiesConverter())
+            )
+        )
+        .httpBasic(basic -> basic.authenticationEntryPoint(basicEntryPoint(retryAfter)));
+
+    return http.build();
+  }
+
+  @Bean
+  @Order(2)
+  public SecurityFilterChain securityFilterChain(
+      HttpSecurity http, UserServiceImpl userService,
+      @Value("${app.security.password.hashing.retry-after:1s}") Duration retryAfter) throws Exception {
     http
         .csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(auth -> auth
             .requestMatchers("/", "/login", "/oauth2/**", "/error", "/webjars/**").permitAll()
-            .requestMatchers("/api/students/postgres/**").authenticated() // 只要认证即可，不需要ADMIN角色
-            .requestMatchers("/api/students/mysql/**").authenticated()
             .anyRequest().authenticated()
         )
         // 配置 OAuth2 登录
@@ -48,10 +105,11 @@ public class SecurityConfig {
         .formLogin(form -> form
             .loginPage("/login")
             .defaultSuccessUrl("/")
+            .failureHandler(formLoginFailureHandler(retryAfter))
             .permitAll()
         )
         // 保留 Basic Auth 用于 API 测试
-        .httpBasic(withDefaults())
+        .httpBasic(basic -> basic.authenticationEntryPoint(basicEntryPoint(retryAfter)))
         // 配置登出
         .logout(logout -> logout
             .logoutSuccessUrl("/")
@@ -63,6 +121,24 @@ public class SecurityConfig {
 
     return http.build();
   }
+  // 哈希线程池饱和时返回 503 + Retry-After，其余情况仍是 401 质询
+  private static AuthenticationEntryPoint basicEntryPoint(Duration retryAfter) {
+    BasicAuthenticationEntryPoint basic = new BasicAuthenticationEntryPoint();
+    basic.setRealmName("Realm");
+    return new PasswordHashingUnavailableEntryPoint(basic, retryAfter);
+  }
+
+  // 表单登录同理：饱和时 503，其余失败照旧跳回 /login?error
+  private static AuthenticationFailureHandler formLoginFailureHandler(Duration retryAfter) {
+    AuthenticationEntryPointFailureHandler unavailable = new AuthenticationEntryPointFailureHandler(
+        new PasswordHashingUnavailableEntryPoint(new BasicAuthenticationEntryPoint(), retryAfter));
+    unavailable.setRethrowAuthenticationServiceException(false);
+    LinkedHashMap<Class<? extends AuthenticationException>, AuthenticationFailureHandler> handlers =
+        new LinkedHashMap<>();
+    handlers.put(PasswordHashingUnavailableException.class, unavailable);
+    return new DelegatingAuthenticationFailureHandler(handlers, new SimpleUrlAuthenticationFailureHandler("/login?error"));
+  }
+
   @Bean
   public AuthenticationSuccessHandler oauth2AuthenticationSuccessHandler() {
     SimpleUrlAuthenticationSuccessHandler handler = new SimpleUrlAuthenticationSuccessHandler();
@@ -70,22 +146,61 @@ public class SecurityConfig {
     return handler;
   }
 
+  // 返回 InMemoryUserDetailsManager（也是 UserDetailsPasswordService），登录成功后 cost 不足的哈希会被自动重算
   @Bean
-  public UserDetailsService userDetailsService() {
+  public InMemoryUserDetailsManager userDetailsService(PasswordEncoder passwordEncoder) {
     UserDetails adminUser = User.builder()
         .username("admin")
-        .password(passwordEncoder().encode("admin"))
+        .password(passwordEncoder.encode("admin"))
         .roles("ADMIN")
         .build();
 
-    System.out.println("Created in-memory user: " + adminUser.getUsername());
-    System.out.println("Roles: " + adminUser.getAuthorities());
+    logger.info("Created in-memory user: {}, roles: {}", adminUser.getUsername(), adminUser.getAuthorities());
 
     return new InMemoryUserDetailsManager(adminUser);
   }
 
+  /**
+   * Username/password authentication (form login and HTTP Basic): the usual
+   * DaoAuthenticationProvider, which also upgrades hashes after a successful login. It sits behind
+   * a short-lived cache of verified credentials, so repeat Basic-auth calls skip BCrypt.
+   * Set {@code app.security.basic-auth-cache.enabled=false} to verify every request. A rejection
+   * from the saturated hashing pool is reported as a {@link PasswordHashingUnavailableException}.
+   */
+  @Bean
+  public AuthenticationProvider authenticationProvider(
+      InMemoryUserDetailsManager userDetailsService,
+      PasswordEncoder passwordEncoder,
+      @Value("${app.security.basic-auth-cache.enabled:true}") boolean cacheEnabled,
+      @Value("${app.security.basic-auth-cache.ttl:60s}") Duration ttl,
+      @Value("${app.security.basic-auth-cache.max-size:1000}") long maxSize,
+      MeterRegistry meterRegistry) {
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+    provider.setPasswordEncoder(passwordEncoder);
+    provider.setUserDetailsPasswordService(userDetailsService);
+    return new OverloadAwareAuthenticationProvider(cacheEnabled
+        ? new CachingAuthenticationProvider(provider, userDetailsService, ttl, maxSize, meterRegistry)
+        : provider);
+  }
+
+  /**
+   * BCrypt at {@code app.security.password.bcrypt-strength}, behind a {@link DelegatingPasswordEncoder}.
+   * New hashes carry the {@code {bcrypt}} prefix. Older hashes without a prefix are still verified
+   * as BCrypt and, like hashes of a lower cost, are flagged for upgrade, so they are rehashed on
+   * the next successful login. Hashing itself runs on the bounded pool of
+   * {@link BoundedPasswordEncoder}.
+   */
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      @Value("${app.security.password.bcrypt-strength:10}") int strength,
+      @Value("${app.security.password.hashing.threads:0}") int threads,
+      @Value("${app.security.password.hashing.queue-capacity:64}") int queueCapacity,
+      MeterRegistry meterRegistry) {
+    BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+    DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+    delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+    // 0 表示自动：一半的核，至少一个
+    int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, meterRegistry);
   }
 }
\ No newline at end of file
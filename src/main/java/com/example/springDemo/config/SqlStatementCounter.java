@@ -0,0 +1,96 @@
+package com.example.springDemo.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+
+/**
+ * Counts, per thread, the SQL statements Hibernate prepares and the entities and collections it
+ * loads from a result set or fetches with a separate select. It is installed on both
+ * persistence units as the statement inspector and, when {@code hibernate.generate_statistics}
+ * is on, as the statistics factory ({@link #statisticsFactory()}). Callers take a
+ * {@link #snapshot()} before and after a unit of work and subtract. A request whose
+ * collection or entity fetches grow with the number of rows is the N+1 pattern.
+ * Statements issued directly through JDBC (the batch, search and COPY repositories) bypass
+ * Hibernate and are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+  private static final int STATEMENTS = 0;
+  private static final int ENTITY_LOADS = 1;
+  private static final int ENTITY_FETCHES = 2;
+  private static final int COLLECTION_LOADS = 3;
+  private static final int COLLECTION_FETCHES = 4;
+
+  // 每个线程一个计数器，虚拟线程同样适用
+  private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[5]);
+
+  public record Counts(long statements, long entityLoads, long entityFetches,
+                       long collectionLoads, long collectionFetches) {
+
+    public Counts minus(Counts before) {
+      return new Counts(statements - before.statements, entityLoads - before.entityLoads,
+          entityFetches - before.entityFetches, collectionLoads - before.collectionLoads,
+          collectionFetches - before.collectionFetches);
+    }
+
+    @Override
+    public String toString() {
+      return "statements=" + statements + ", entityLoads=" + entityLoads + ", entityFetches=" + entityFetches
+          + ", collectionLoads=" + collectionLoads + ", collectionFetches=" + collectionFetches;
+    }
+  }
+
+  public static long current() {
+    return COUNTS.get()[STATEMENTS];
+  }
+
+  public static Counts snapshot() {
+    long[] counts = COUNTS.get();
+    return new Counts(counts[STATEMENTS], counts[ENTITY_LOADS], counts[ENTITY_FETCHES],
+        counts[COLLECTION_LOADS], counts[COLLECTION_FETCHES]);
+  }
+
+  public static StatisticsFactory statisticsFactory() {
+    return CountingStatistics::new;
+  }
+
+  @Override
+  public String inspect(String sql) {
+    COUNTS.get()[STATEMENTS]++;
+    return sql;
+  }
+
+  // Hibernate 自带的全局统计（/actuator/sqlstats），同时累加到当前线程
+  private static class CountingStatistics extends StatisticsImpl {
+
+    CountingStatistics(SessionFactoryImplementor sessionFactory) {
+      super(sessionFactory);
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+      super.loadEntity(entityName);
+      COUNTS.get()[ENTITY_LOADS]++;
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+      super.fetchEntity(entityName);
+      COUNTS.get()[ENTITY_FETCHES]++;
+    }
+
+    @Override
+    public void loadCollection(String role) {
+      super.loadCollection(role);
+      COUNTS.get()[COLLECTION_LOADS]++;
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+      super.fetchCollection(role);
+      COUNTS.get()[COLLECTION_FETCHES]++;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.springDemo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Per-request SQL statistics from {@link SqlStatementCounter}. Each request records the
+ * {@code students.request.sql.*} distribution summaries (statements, entity and collection
+ * loads/fetches), tagged by method and URI pattern. A request that issues more than
+ * {@code app.students.sql-stats.warn-threshold} statements is logged as a possible N+1.
+ * In debug mode ({@code debug=true}) or with {@code app.students.sql-stats.header=true}, and
+ * never in the prod profile, the counts are also sent back in the {@value #HEADER} response
+ * header. The header is added just before the response is committed, so the body is never
+ * buffered. Work done on another thread (async and streaming bodies) is not counted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-SQL-Statistics";
+
+  private static final Logger logger = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+  private final MeterRegistry meterRegistry;
+  private final boolean header;
+  private final long warnThreshold;
+
+  @Autowired
+  public SqlStatisticsFilter(MeterRegistry meterRegistry,
+                             @Value("${app.students.sql-stats.header:${debug:false}}") boolean header,
+                             @Value("${app.students.sql-stats.warn-threshold:20}") long warnThreshold) {
+    this.meterRegistry = meterRegistry;
+    this.header = header;
+    this.warnThreshold = warnThreshold;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    SqlStatementCounter.Counts before = SqlStatementCounter.snapshot();
+    HeaderWriter headerWriter = header ? new HeaderWriter(response, before) : null;
+    try {
+      chain.doFilter(request, headerWriter != null ? headerWriter : response);
+    } finally {
+      SqlStatementCounter.Counts counts = SqlStatementCounter.snapshot().minus(before);
+      if (headerWriter != null) {
+        headerWriter.addHeader();
+      }
+      record(request, counts);
+    }
+  }
+
+  private void record(HttpServletRequest request, SqlStatementCounter.Counts counts) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+    String method = request.getMethod();
+    summary("students.request.sql.statements", method, uri).record(counts.statements());
+    summary("students.request.sql.entity.loads", method, uri).record(counts.entityLoads());
+    summary("students.request.sql.entity.fetches", method, uri).record(counts.entityFetches());
+    summary("students.request.sql.collection.loads", method, uri).record(counts.collectionLoads());
+    summary("students.request.sql.collection.fetches", method, uri).record(counts.collectionFetches());
+    if (counts.statements() > warnThreshold) {
+      logger.warn("{} {} issued {} SQL statements ({}), possible N+1", method, request.getRequestURI(),
+          counts.statements(), counts);
+    }
+  }
+
+  private DistributionSummary summary(String name, String method, String uri) {
+    return DistributionSummary.builder(name)
+        .tag("method", method)
+        .tag("uri", uri)
+        .register(meterRegistry);
+  }
+
+  // 在响应提交（第一次取输出流/flush）前写入头，之后再写就无效了
+  private static final class HeaderWriter extends HttpServletResponseWrapper {
+
+    private final SqlStatementCounter.Counts before;
+    private final Thread requestThread = Thread.currentThread();
+    private boolean written;
+
+    HeaderWriter(HttpServletResponse response, SqlStatementCounter.Counts before) {
+      super(response);
+      this.before = before;
+    }
+
+    void addHeader() {
+      // 计数是线程本地的，异步线程上的调用不写头
+      if (!written && Thread.currentThread() == requestThread && !isCommitted()) {
+        written = true;
+        setHeader(HEADER, SqlStatementCounter.snapshot().minus(before).toString());
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      addHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      addHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      addHeader();
+      super.flushBuffer();
+    }
+  }
+}
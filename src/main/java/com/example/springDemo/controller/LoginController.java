@@ -1,5 +1,7 @@
 package com.example.springDemo.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
@@ -9,6 +11,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class LoginController {
 
+  private final Logger logger = LoggerFactory.getLogger(LoginController.class);
+
   @GetMapping("/login")
   public String login() {
     return "login";
@@ -25,11 +29,11 @@ public class LoginController {
       model.addAttribute("name", name);
       model.addAttribute("email", email);
 
-      // Log user information for debugging
-      System.out.println("Authenticated user: " + name + " (" + email + ")");
-      System.out.println("OAuth2 Attributes: " + oauth2User.getAttributes());
+      // Log user information for debugging (参数化日志，级别关闭时不拼接字符串)
+      logger.debug("Authenticated user: {} ({})", name, email);
+      logger.trace("OAuth2 Attributes: {}", oauth2User.getAttributes());
     } else {
-      System.out.println("No authenticated user found");
+      logger.debug("No authenticated user found");
     }
 
     return "home";
@@ -0,0 +1,87 @@
+package com.example.springDemo.controller;
+
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.ReactiveStudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive (R2DBC) counterparts of the {@link StudentController} read routes, under
+ * {@code /api/reactive/students}. Spring MVC subscribes to the returned Mono/Flux
+ * asynchronously, so no Tomcat thread or JDBC connection waits on the query. With
+ * {@code Accept: application/x-ndjson} list routes are streamed one element at a time,
+ * requesting the next row only after the previous one has been written.
+ */
+@RestController
+@RequestMapping("/api/reactive/students")
+public class ReactiveStudentController {
+
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  private final ReactiveStudentService postgresStudentService;
+  private final ReactiveStudentService mysqlStudentService;
+
+  @Autowired
+  public ReactiveStudentController(
+      @Qualifier("postgresReactiveStudentService") ReactiveStudentService postgresStudentService,
+      @Qualifier("mysqlReactiveStudentService") ReactiveStudentService mysqlStudentService) {
+    this.postgresStudentService = postgresStudentService;
+    this.mysqlStudentService = mysqlStudentService;
+  }
+
+  /**
+   * GET: http://localhost:8080/api/reactive/students/postgres  (Accept: application/x-ndjson 时流式输出)
+   */
+  @GetMapping(value = "/{source}", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+  public Flux<Student> getAllStudents(@PathVariable String source) {
+    return serviceFor(source).getAllStudents();
+  }
+
+  @GetMapping(value = "/{source}", params = "view=summary", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+  public Flux<StudentDTO> getAllStudentSummaries(@PathVariable String source) {
+    return serviceFor(source).getAllStudentSummaries();
+  }
+
+  @GetMapping("/{source}/{id:\\d+}")
+  public Mono<ResponseEntity<Student>> getStudentById(@PathVariable String source, @PathVariable Long id) {
+    return serviceFor(source).getStudentById(id)
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @GetMapping(value = "/{source}/by-name", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+  public Flux<Student> findStudentsByName(@PathVariable String source, @RequestParam(name = "name") String name) {
+    return serviceFor(source).findStudentsByName(name);
+  }
+
+  @GetMapping(value = "/{source}/older-than", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+  public Flux<Student> findStudentsOlderThan(@PathVariable String source, @RequestParam(name = "age") Integer age) {
+    return serviceFor(source).findStudentsOlderThan(age);
+  }
+
+  @GetMapping(value = "/{source}/page", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+  public Flux<Student> getStudentPage(
+      @PathVariable String source,
+      @RequestParam(name = "after", defaultValue = "0") Long after,
+      @RequestParam(name = "limit", defaultValue = "100") int limit) {
+    return serviceFor(source).getStudentsAfter(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+  }
+
+  private ReactiveStudentService serviceFor(String source) {
+    if ("postgres".equalsIgnoreCase(source)) {
+      return postgresStudentService;
+    } else if ("mysql".equalsIgnoreCase(source)) {
+      return mysqlStudentService;
+    }
+    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown data source: " + source);
+  }
+}
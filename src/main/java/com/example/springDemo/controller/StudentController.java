@@ -1,28 +1,68 @@
 package com.example.springDemo.controller;
 
+import com.example.springDemo.dto.BulkInsertResult;
+import com.example.springDemo.dto.CursorPage;
+import com.example.springDemo.dto.ExportResult;
+import com.example.springDemo.dto.FederatedResult;
+import com.example.springDemo.dto.FederatedStudent;
+import com.example.springDemo.dto.ImportResult;
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.dto.StudentNameMatch;
+import com.example.springDemo.dto.StudentSearchCriteria;
 import com.example.springDemo.model.Student;
+import com.example.springDemo.service.FederatedStudentService;
 import com.example.springDemo.service.StudentService;
+import com.example.springDemo.service.export.StudentExportFormat;
+import com.example.springDemo.service.export.StudentExporter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/students")
 public class StudentController {
 
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final int MAX_NAME_MATCHES = 100;
+  private static final String FAILED_SOURCES_HEADER = "X-Failed-Sources";
+  private static final DateTimeFormatter EXPORT_FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
   private final StudentService postgresStudentService;
   private final StudentService mysqlStudentService;
+  private final FederatedStudentService federatedStudentService;
+  private final StudentExporter studentExporter;
+  private final Path exportDirectory;
 
   @Autowired
   public StudentController(
       @Qualifier("postgresStudentService") StudentService postgresStudentService,
-      @Qualifier("mysqlStudentService") StudentService mysqlStudentService) {
+      @Qualifier("mysqlStudentService") StudentService mysqlStudentService,
+      FederatedStudentService federatedStudentService,
+      StudentExporter studentExporter,
+      @Value("${app.students.export.dir}") Path exportDirectory) {
     this.postgresStudentService = postgresStudentService;
     this.mysqlStudentService = mysqlStudentService;
+    this.federatedStudentService = federatedStudentService;
+    this.studentExporter = studentExporter;
+    this.exportDirectory = exportDirectory;
   }
 
   @GetMapping("/postgres")
@@ -35,17 +75,28 @@ public class StudentController {
     return ResponseEntity.ok(mysqlStudentService.getAllStudents());
   }
 
-  @GetMapping("/postgres/{id}")
+  // ?view=summary 只返回 id/name/age，查询直接投影到 StudentDTO
+  @GetMapping(value = "/postgres", params = "view=summary")
+  public ResponseEntity<List<StudentDTO>> getAllPostgresStudentSummaries() {
+    return ResponseEntity.ok(postgresStudentService.getAllStudentSummaries());
+  }
+
+  @GetMapping(value = "/mysql", params = "view=summary")
+  public ResponseEntity<List<StudentDTO>> getAllMysqlStudentSummaries() {
+    return ResponseEntity.ok(mysqlStudentService.getAllStudentSummaries());
+  }
+
+  @GetMapping("/postgres/{id:\\d+}")
   public ResponseEntity<Student> getPostgresStudentById(@PathVariable Long id) {
     return postgresStudentService.getStudentById(id)
-        .map(ResponseEntity::ok)
+        .map(this::withETag)
         .orElse(ResponseEntity.notFound().build());
   }
 
-  @GetMapping("/mysql/{id}")
+  @GetMapping("/mysql/{id:\\d+}")
   public ResponseEntity<Student> getMysqlStudentById(@PathVariable Long id) {
     return mysqlStudentService.getStudentById(id)
-        .map(ResponseEntity::ok)
+        .map(this::withETag)
         .orElse(ResponseEntity.notFound().build());
   }
 
@@ -71,44 +122,59 @@ public class StudentController {
     return new ResponseEntity<>(postgresStudentService.saveStudent(student), HttpStatus.CREATED);
   }
 
-  @PutMapping("/mysql/{id}")
-  public ResponseEntity<Student> updateMysqlStudent(@PathVariable Long id, @RequestBody Student student) {
-    return mysqlStudentService.getStudentById(id)
-        .map(existingStudent -> {
-          student.setId(id);
-          return ResponseEntity.ok(mysqlStudentService.saveStudent(student));
-        })
-        .orElse(ResponseEntity.notFound().build());
+  /**
+   * POST: http://localhost:8080/api/students/mysql/bulk
+   * body 为学生数组，走 JDBC 批量插入，按 app.students.bulk.* 分批、分事务提交
+   */
+  @PostMapping("/{source}/bulk")
+  public ResponseEntity<BulkInsertResult> createStudentsInBulk(
+      @PathVariable String source, @RequestBody List<Student> students) {
+    StudentService studentService = serviceFor(source);
+    long start = System.nanoTime();
+    int inserted = studentService.saveAll(students);
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    return new ResponseEntity<>(new BulkInsertResult(inserted, elapsedMillis), HttpStatus.CREATED);
   }
 
-  @PutMapping("/postgres/{id}")
-  public ResponseEntity<Student> updatePostgresStudent(@PathVariable Long id, @RequestBody Student student) {
-    return postgresStudentService.getStudentById(id)
-        .map(existingStudent -> {
-          student.setId(id);
-          return ResponseEntity.ok(postgresStudentService.saveStudent(student));
-        })
-        .orElse(ResponseEntity.notFound().build());
+  /**
+   * POST: http://localhost:8080/api/students/postgres/import  (Content-Type: text/csv)
+   * 表头需含 name 列，可选 age、ssn、birth、credit_card_number；边解析边按 chunk 提交，
+   * 返回导入行数、被拒绝的行（行号 + 原因）和 rows/s
+   */
+  @PostMapping(value = "/{source}/import",
+      consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+  public ResponseEntity<ImportResult> importStudents(@PathVariable String source, InputStream body)
+      throws IOException {
+    StudentService studentService = serviceFor(source);
+    try {
+      return ResponseEntity.ok(studentService.importStudents(new InputStreamReader(body, StandardCharsets.UTF_8)));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
   }
 
-  @DeleteMapping("/mysql/{id}")
-  public ResponseEntity<Void> deleteMysqlStudent(@PathVariable Long id) {
-    return mysqlStudentService.getStudentById(id)
-        .map(student -> {
-          mysqlStudentService.deleteStudent(id);
-          return new ResponseEntity<Void>(HttpStatus.NO_CONTENT);
-        })
-        .orElse(ResponseEntity.notFound().build());
+  @PutMapping("/mysql/{id:\\d+}")
+  public ResponseEntity<Student> updateMysqlStudent(@PathVariable Long id, @RequestBody Student student,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return updateStudent(mysqlStudentService, id, student, ifMatch);
   }
 
-  @DeleteMapping("/postgres/{id}")
-  public ResponseEntity<Void> deletePostgresStudent(@PathVariable Long id) {
-    return postgresStudentService.getStudentById(id)
-        .map(student -> {
-          postgresStudentService.deleteStudent(id);
-          return new ResponseEntity<Void>(HttpStatus.NO_CONTENT);
-        })
-        .orElse(ResponseEntity.notFound().build());
+  @PutMapping("/postgres/{id:\\d+}")
+  public ResponseEntity<Student> updatePostgresStudent(@PathVariable Long id, @RequestBody Student student,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return updateStudent(postgresStudentService, id, student, ifMatch);
+  }
+
+  @DeleteMapping("/mysql/{id:\\d+}")
+  public ResponseEntity<Void> deleteMysqlStudent(@PathVariable Long id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return deleteStudent(mysqlStudentService, id, ifMatch);
+  }
+
+  @DeleteMapping("/postgres/{id:\\d+}")
+  public ResponseEntity<Void> deletePostgresStudent(@PathVariable Long id,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return deleteStudent(postgresStudentService, id, ifMatch);
   }
 
   // 示例：根据数据源参数动态选择服务
@@ -121,4 +187,239 @@ public class StudentController {
       return ResponseEntity.ok(postgresStudentService.getAllStudents());
     }
   }
-}
\ No newline at end of file
+
+  // source=all 时并发查询两个库并合并，每行带上 source
+  @GetMapping(params = {"source=all", "!view"})
+  public ResponseEntity<List<FederatedStudent>> getAllStudentsFromAllSources() {
+    return federated(federatedStudentService.getAllStudents());
+  }
+
+  @GetMapping(params = "view=summary")
+  public ResponseEntity<List<StudentDTO>> getAllStudentSummaries(
+      @RequestParam(name = "source", defaultValue = "postgres") String source) {
+    if ("mysql".equalsIgnoreCase(source)) {
+      return ResponseEntity.ok(mysqlStudentService.getAllStudentSummaries());
+    } else {
+      return ResponseEntity.ok(postgresStudentService.getAllStudentSummaries());
+    }
+  }
+
+  @GetMapping("/{source}/by-name")
+  public ResponseEntity<List<Student>> findStudentsByName(
+      @PathVariable String source, @RequestParam(name = "name") String name) {
+    return ResponseEntity.ok(serviceFor(source).findStudentsByName(name));
+  }
+
+  @GetMapping(value = "/all/by-name", params = "!view")
+  public ResponseEntity<List<FederatedStudent>> findStudentsByNameInAllSources(@RequestParam(name = "name") String name) {
+    return federated(federatedStudentService.findStudentsByName(name));
+  }
+
+  @GetMapping(value = "/{source}/by-name", params = "view=summary")
+  public ResponseEntity<List<StudentDTO>> findStudentSummariesByName(
+      @PathVariable String source, @RequestParam(name = "name") String name) {
+    return ResponseEntity.ok(serviceFor(source).findStudentSummariesByName(name));
+  }
+
+  @GetMapping("/{source}/older-than")
+  public ResponseEntity<List<Student>> findStudentsOlderThan(
+      @PathVariable String source, @RequestParam(name = "age") Integer age) {
+    return ResponseEntity.ok(serviceFor(source).findStudentsOlderThan(age));
+  }
+
+  @GetMapping(value = "/all/older-than", params = "!view")
+  public ResponseEntity<List<FederatedStudent>> findStudentsOlderThanInAllSources(@RequestParam(name = "age") Integer age) {
+    return federated(federatedStudentService.findStudentsOlderThan(age));
+  }
+
+  @GetMapping(value = "/{source}/older-than", params = "view=summary")
+  public ResponseEntity<List<StudentDTO>> findStudentSummariesOlderThan(
+      @PathVariable String source, @RequestParam(name = "age") Integer age) {
+    return ResponseEntity.ok(serviceFor(source).findStudentSummariesOlderThan(age));
+  }
+
+  /**
+   * GET: http://localhost:8080/api/students/postgres/search?namePrefix=al&minAge=18&maxAge=30&bornFrom=2000-01-01&page=0&size=20
+   * 所有条件可选，组合查询走 name/age/birth 复合索引
+   */
+  @GetMapping("/{source}/search")
+  public ResponseEntity<List<Student>> searchStudents(
+      @PathVariable String source,
+      @ModelAttribute StudentSearchCriteria criteria,
+      @RequestParam(name = "page", defaultValue = "0") int page,
+      @RequestParam(name = "size", defaultValue = "20") int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    return ResponseEntity.ok(serviceFor(source).searchStudents(criteria, Math.max(page, 0), pageSize));
+  }
+
+  /**
+   * GET: http://localhost:8080/api/students/postgres/search?q=alice&limit=20
+   * 模糊 + 前缀姓名搜索，由内存 trigram 索引直接回答，按相似度排序
+   */
+  @GetMapping(value = "/{source}/search", params = "q")
+  public ResponseEntity<List<StudentNameMatch>> searchStudentsByName(
+      @PathVariable String source,
+      @RequestParam(name = "q") String query,
+      @RequestParam(name = "limit", defaultValue = "20") int limit) {
+    int maxResults = Math.max(1, Math.min(limit, MAX_NAME_MATCHES));
+    return ResponseEntity.ok(serviceFor(source).searchStudentsByName(query, maxResults));
+  }
+
+  /**
+   * GET: http://localhost:8080/api/students/postgres/page?after=0&limit=100
+   * keyset 分页，下一页使用返回的 nextCursor 作为 after
+   */
+  @GetMapping("/{source}/page")
+  public ResponseEntity<CursorPage<Student>> getStudentPage(
+      @PathVariable String source,
+      @RequestParam(name = "after", defaultValue = "0") Long after,
+      @RequestParam(name = "limit", defaultValue = "100") int limit) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    List<Student> students = serviceFor(source).getStudentsAfter(after, pageSize);
+    Long nextCursor = students.size() < pageSize ? null : students.get(students.size() - 1).getId();
+    return ResponseEntity.ok(new CursorPage<>(students, nextCursor));
+  }
+
+  /**
+   * GET: http://localhost:8080/api/students/postgres/stream
+   * 以 NDJSON 逐行输出全部学生，数据库游标读到一行就写出一行
+   */
+  @GetMapping(value = "/{source}/stream", produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> streamStudents(@PathVariable String source) {
+    StudentService studentService = serviceFor(source);
+    StreamingResponseBody body = out ->
+        studentExporter.export(studentService, source, StudentExportFormat.NDJSON, false, out);
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+  }
+
+  /**
+   * GET: http://localhost:8080/api/students/postgres/export?format=csv&gzip=true
+   * 以附件形式下载全部学生（csv 或 ndjson，可选 gzip），边读游标边写出，内存占用与表大小无关
+   */
+  @GetMapping("/{source}/export")
+  public ResponseEntity<StreamingResponseBody> exportStudents(
+      @PathVariable String source,
+      @RequestParam(name = "format", defaultValue = "csv") String format,
+      @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+    StudentService studentService = serviceFor(source);
+    StudentExportFormat exportFormat = exportFormatOf(format);
+    StreamingResponseBody body = out -> studentExporter.export(studentService, source, exportFormat, gzip, out);
+    String contentType = gzip ? "application/gzip" : exportFormat.getContentType();
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(contentType))
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(exportFileName(source, exportFormat, gzip)).build().toString())
+        .body(body);
+  }
+
+  /**
+   * POST: http://localhost:8080/api/students/postgres/export?format=ndjson&gzip=true
+   * 导出到服务器上的 app.students.export.dir 目录，返回文件路径、行数、字节数和 rows/s
+   */
+  @PostMapping("/{source}/export")
+  public ResponseEntity<ExportResult> exportStudentsToFile(
+      @PathVariable String source,
+      @RequestParam(name = "format", defaultValue = "csv") String format,
+      @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) throws IOException {
+    StudentService studentService = serviceFor(source);
+    StudentExportFormat exportFormat = exportFormatOf(format);
+    Path file = exportDirectory.resolve(exportFileName(source, exportFormat, gzip));
+    return ResponseEntity.ok(studentExporter.exportToFile(studentService, source, exportFormat, gzip, file));
+  }
+
+  private static StudentExportFormat exportFormatOf(String format) {
+    try {
+      return StudentExportFormat.from(format);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+    }
+  }
+
+  private static String exportFileName(String source, StudentExportFormat format, boolean gzip) {
+    return "students-" + source + "-" + LocalDateTime.now().format(EXPORT_FILE_TIMESTAMP)
+        + "." + format.getExtension() + (gzip ? ".gz" : "");
+  }
+
+  // GET 带上 ETag 后，If-None-Match 命中时 Spring 直接返回 304，不再序列化 body
+  private ResponseEntity<Student> withETag(Student student) {
+    if (student.getVersion() == null) {
+      return ResponseEntity.ok(student);
+    }
+    return ResponseEntity.ok().eTag(eTagOf(student.getVersion())).body(student);
+  }
+
+  // PUT/DELETE 只发一条 UPDATE/DELETE；影响 0 行时才额外查一次，用来区分 404 和 412
+  private ResponseEntity<Student> updateStudent(StudentService studentService, Long id, Student student,
+                                                String ifMatch) {
+    Long expectedVersion = ifMatch != null ? versionOf(ifMatch) : student.getVersion();
+    if (studentService.updateStudent(id, expectedVersion, student) == 0) {
+      return ResponseEntity.status(failedWriteStatus(studentService, id, expectedVersion)).build();
+    }
+    student.setId(id);
+    if (expectedVersion == null) {
+      student.setVersion(null);
+      return ResponseEntity.ok(student);
+    }
+    student.setVersion(expectedVersion + 1);
+    return withETag(student);
+  }
+
+  private ResponseEntity<Void> deleteStudent(StudentService studentService, Long id, String ifMatch) {
+    Long expectedVersion = ifMatch != null ? versionOf(ifMatch) : null;
+    if (studentService.deleteStudent(id, expectedVersion) == 0) {
+      return ResponseEntity.status(failedWriteStatus(studentService, id, expectedVersion)).build();
+    }
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+
+  private HttpStatus failedWriteStatus(StudentService studentService, Long id, Long expectedVersion) {
+    if (expectedVersion != null && studentService.getStudentById(id).isPresent()) {
+      return HttpStatus.PRECONDITION_FAILED;
+    }
+    return HttpStatus.NOT_FOUND;
+  }
+
+  private static String eTagOf(Long version) {
+    return "\"" + version + "\"";
+  }
+
+  // If-Match: "3" / W/"3"；"*" 表示只要存在即可，不校验版本
+  private static Long versionOf(String ifMatch) {
+    String tag = ifMatch.trim();
+    if ("*".equals(tag)) {
+      return null;
+    }
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    try {
+      return Long.valueOf(tag.replace("\"", ""));
+    } catch (NumberFormatException e) {
+      throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Unrecognized ETag: " + ifMatch);
+    }
+  }
+
+  // 有数据源失败或超时时通过 X-Failed-Sources 头标明结果不完整
+  // 所有数据源都失败时返回 503，而不是一个看起来正常的空列表
+  private static ResponseEntity<List<FederatedStudent>> federated(FederatedResult<FederatedStudent> result) {
+    if (result.isUnavailable()) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(FAILED_SOURCES_HEADER, String.join(",", result.getFailedSources()))
+          .build();
+    }
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (result.isPartial()) {
+      response.header(FAILED_SOURCES_HEADER, String.join(",", result.getFailedSources()));
+    }
+    return response.body(result.getItems());
+  }
+
+  private StudentService serviceFor(String source) {
+    if ("postgres".equalsIgnoreCase(source)) {
+      return postgresStudentService;
+    } else if ("mysql".equalsIgnoreCase(source)) {
+      return mysqlStudentService;
+    }
+    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown data source: " + source);
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.springDemo.controller;
+
+import com.example.springDemo.dto.TokenResponse;
+import com.example.springDemo.service.token.JwtTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+public class TokenController {
+
+  private final JwtTokenService tokenService;
+
+  @Autowired
+  public TokenController(JwtTokenService tokenService) {
+    this.tokenService = tokenService;
+  }
+
+  /**
+   * Exchanges HTTP Basic (or session) credentials for a short-lived bearer token.
+   * POST: http://localhost:8080/api/auth/token  (Authorization: Basic ...)
+   */
+  @PostMapping("/token")
+  public ResponseEntity<TokenResponse> issueToken(Authentication authentication) {
+    // 不允许用 token 换 token，否则可以无限续期
+    if (authentication instanceof JwtAuthenticationToken) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    return ResponseEntity.ok(tokenService.issue(authentication));
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.springDemo.dto;
+
+public class BulkInsertResult {
+
+  private int inserted;
+  private long elapsedMillis;
+
+  public BulkInsertResult() {
+  }
+
+  public BulkInsertResult(int inserted, long elapsedMillis) {
+    this.inserted = inserted;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  // Getters and Setters
+  public int getInserted() {
+    return inserted;
+  }
+
+  public void setInserted(int inserted) {
+    this.inserted = inserted;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public void setElapsedMillis(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public long getRowsPerSecond() {
+    return elapsedMillis > 0 ? inserted * 1000L / elapsedMillis : inserted;
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.springDemo.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the id to pass as
+ * {@code after} for the following page, or {@code null} once the end is reached.
+ */
+public class CursorPage<T> {
+
+  private List<T> items;
+  private Long nextCursor;
+
+  public CursorPage() {
+  }
+
+  public CursorPage(List<T> items, Long nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  // Getters and Setters
+  public List<T> getItems() {
+    return items;
+  }
+
+  public void setItems(List<T> items) {
+    this.items = items;
+  }
+
+  public Long getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(Long nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.springDemo.dto;
+
+public class ExportResult {
+
+  private String source;
+  private String format;
+  private long rows;
+  private long bytesWritten;
+  private long elapsedMillis;
+  private String file;
+
+  public ExportResult() {
+  }
+
+  public ExportResult(String source, String format, long rows, long bytesWritten, long elapsedMillis) {
+    this.source = source;
+    this.format = format;
+    this.rows = rows;
+    this.bytesWritten = bytesWritten;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  // Getters and Setters
+  public String getSource() {
+    return source;
+  }
+
+  public void setSource(String source) {
+    this.source = source;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public void setFormat(String format) {
+    this.format = format;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public void setRows(long rows) {
+    this.rows = rows;
+  }
+
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  public void setBytesWritten(long bytesWritten) {
+    this.bytesWritten = bytesWritten;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public void setElapsedMillis(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public String getFile() {
+    return file;
+  }
+
+  public void setFile(String file) {
+    this.file = file;
+  }
+
+  public long getRowsPerSecond() {
+    return elapsedMillis > 0 ? rows * 1000L / elapsedMillis : rows;
+  }
+}
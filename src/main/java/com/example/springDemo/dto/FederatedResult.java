@@ -0,0 +1,57 @@
+package com.example.springDemo.dto;
+
+import java.util.List;
+
+/**
+ * Merged result of a query fanned out to every datasource. {@code failedSources} lists
+ * the sources that errored or timed out; when it is non-empty the items are partial, and
+ * when no source answered at all the (empty) items say nothing about the data.
+ */
+public class FederatedResult<T> {
+
+  private List<T> items;
+  private List<String> answeredSources;
+  private List<String> failedSources;
+
+  public FederatedResult() {
+  }
+
+  public FederatedResult(List<T> items, List<String> answeredSources, List<String> failedSources) {
+    this.items = items;
+    this.answeredSources = answeredSources;
+    this.failedSources = failedSources;
+  }
+
+  // Getters and Setters
+  public List<T> getItems() {
+    return items;
+  }
+
+  public void setItems(List<T> items) {
+    this.items = items;
+  }
+
+  public List<String> getAnsweredSources() {
+    return answeredSources;
+  }
+
+  public void setAnsweredSources(List<String> answeredSources) {
+    this.answeredSources = answeredSources;
+  }
+
+  public List<String> getFailedSources() {
+    return failedSources;
+  }
+
+  public void setFailedSources(List<String> failedSources) {
+    this.failedSources = failedSources;
+  }
+
+  public boolean isPartial() {
+    return failedSources != null && !failedSources.isEmpty();
+  }
+
+  public boolean isUnavailable() {
+    return answeredSources == null || answeredSources.isEmpty();
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.springDemo.dto;
+
+import com.example.springDemo.model.Student;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// source=all 结果中的一行：两个库的 id 各自自增、可能重复，source 标明该用哪个 /{source}/{id} 继续操作
+public class FederatedStudent {
+
+  private String source;
+
+  @JsonUnwrapped
+  private Student student;
+
+  public FederatedStudent() {
+  }
+
+  public FederatedStudent(String source, Student student) {
+    this.source = source;
+    this.student = student;
+  }
+
+  // Getters and Setters
+  public String getSource() {
+    return source;
+  }
+
+  public void setSource(String source) {
+    this.source = source;
+  }
+
+  public Student getStudent() {
+    return student;
+  }
+
+  public void setStudent(Student student) {
+    this.student = student;
+  }
+}
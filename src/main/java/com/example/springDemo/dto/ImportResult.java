@@ -0,0 +1,59 @@
+package com.example.springDemo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+
+  private long imported;
+  private long rejected;
+  private int chunks;
+  private long elapsedMillis;
+  // 只保留前 N 条拒绝明细，rejected 是总数
+  private List<RejectedRow> rejectedRows = new ArrayList<>();
+
+  // Getters and Setters
+  public long getImported() {
+    return imported;
+  }
+
+  public void setImported(long imported) {
+    this.imported = imported;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public void setRejected(long rejected) {
+    this.rejected = rejected;
+  }
+
+  public int getChunks() {
+    return chunks;
+  }
+
+  public void setChunks(int chunks) {
+    this.chunks = chunks;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public void setElapsedMillis(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public List<RejectedRow> getRejectedRows() {
+    return rejectedRows;
+  }
+
+  public void setRejectedRows(List<RejectedRow> rejectedRows) {
+    this.rejectedRows = rejectedRows;
+  }
+
+  public long getRowsPerSecond() {
+    return elapsedMillis > 0 ? imported * 1000L / elapsedMillis : imported;
+  }
+}
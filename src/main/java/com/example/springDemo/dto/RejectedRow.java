@@ -0,0 +1,32 @@
+package com.example.springDemo.dto;
+
+public class RejectedRow {
+
+  private long line;
+  private String reason;
+
+  public RejectedRow() {
+  }
+
+  public RejectedRow(long line, String reason) {
+    this.line = line;
+    this.reason = reason;
+  }
+
+  // Getters and Setters
+  public long getLine() {
+    return line;
+  }
+
+  public void setLine(long line) {
+    this.line = line;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+
+  public void setReason(String reason) {
+    this.reason = reason;
+  }
+}
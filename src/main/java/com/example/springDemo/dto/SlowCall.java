@@ -0,0 +1,96 @@
+package com.example.springDemo.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class SlowCall {
+
+  private Instant timestamp;
+  private String layer;
+  private String datasource;
+  private String method;
+  private double elapsedMillis;
+  private long sqlStatements;
+  private Map<String, String> arguments;
+  private String exception;
+
+  public SlowCall() {
+  }
+
+  public SlowCall(Instant timestamp, String layer, String datasource, String method, double elapsedMillis,
+                  long sqlStatements, Map<String, String> arguments, String exception) {
+    this.timestamp = timestamp;
+    this.layer = layer;
+    this.datasource = datasource;
+    this.method = method;
+    this.elapsedMillis = elapsedMillis;
+    this.sqlStatements = sqlStatements;
+    this.arguments = arguments;
+    this.exception = exception;
+  }
+
+  // Getters and Setters
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(Instant timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public String getLayer() {
+    return layer;
+  }
+
+  public void setLayer(String layer) {
+    this.layer = layer;
+  }
+
+  public String getDatasource() {
+    return datasource;
+  }
+
+  public void setDatasource(String datasource) {
+    this.datasource = datasource;
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public void setMethod(String method) {
+    this.method = method;
+  }
+
+  public double getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public void setElapsedMillis(double elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public long getSqlStatements() {
+    return sqlStatements;
+  }
+
+  public void setSqlStatements(long sqlStatements) {
+    this.sqlStatements = sqlStatements;
+  }
+
+  public Map<String, String> getArguments() {
+    return arguments;
+  }
+
+  public void setArguments(Map<String, String> arguments) {
+    this.arguments = arguments;
+  }
+
+  public String getException() {
+    return exception;
+  }
+
+  public void setException(String exception) {
+    this.exception = exception;
+  }
+}
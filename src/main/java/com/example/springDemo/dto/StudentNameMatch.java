@@ -0,0 +1,43 @@
+package com.example.springDemo.dto;
+
+// 模糊姓名搜索的一条结果，score 越大越相似（前缀匹配额外加 1）
+public class StudentNameMatch {
+
+  private Long id;
+  private String name;
+  private double score;
+
+  public StudentNameMatch() {
+  }
+
+  public StudentNameMatch(Long id, String name, double score) {
+    this.id = id;
+    this.name = name;
+    this.score = score;
+  }
+
+  // Getters and Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public void setScore(double score) {
+    this.score = score;
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.springDemo.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// 组合搜索条件，所有字段可选；范围条件两端都是闭区间
+public class StudentSearchCriteria {
+
+  private String namePrefix;
+  private Integer minAge;
+  private Integer maxAge;
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate bornFrom;
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate bornTo;
+
+  public StudentSearchCriteria() {
+  }
+
+  // Getters and Setters
+  public String getNamePrefix() {
+    return namePrefix;
+  }
+
+  public void setNamePrefix(String namePrefix) {
+    this.namePrefix = namePrefix;
+  }
+
+  public Integer getMinAge() {
+    return minAge;
+  }
+
+  public void setMinAge(Integer minAge) {
+    this.minAge = minAge;
+  }
+
+  public Integer getMaxAge() {
+    return maxAge;
+  }
+
+  public void setMaxAge(Integer maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  public LocalDate getBornFrom() {
+    return bornFrom;
+  }
+
+  public void setBornFrom(LocalDate bornFrom) {
+    this.bornFrom = bornFrom;
+  }
+
+  public LocalDate getBornTo() {
+    return bornTo;
+  }
+
+  public void setBornTo(LocalDate bornTo) {
+    this.bornTo = bornTo;
+  }
+}
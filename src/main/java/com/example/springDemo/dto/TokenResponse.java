@@ -0,0 +1,50 @@
+package com.example.springDemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// 字段名按 OAuth2 token 响应的惯例（RFC 6749 5.1）
+public class TokenResponse {
+
+  @JsonProperty("access_token")
+  private String accessToken;
+
+  @JsonProperty("token_type")
+  private String tokenType;
+
+  @JsonProperty("expires_in")
+  private long expiresIn;
+
+  public TokenResponse() {
+  }
+
+  public TokenResponse(String accessToken, String tokenType, long expiresIn) {
+    this.accessToken = accessToken;
+    this.tokenType = tokenType;
+    this.expiresIn = expiresIn;
+  }
+
+  // Getters and Setters
+  public String getAccessToken() {
+    return accessToken;
+  }
+
+  public void setAccessToken(String accessToken) {
+    this.accessToken = accessToken;
+  }
+
+  public String getTokenType() {
+    return tokenType;
+  }
+
+  public void setTokenType(String tokenType) {
+    this.tokenType = tokenType;
+  }
+
+  public long getExpiresIn() {
+    return expiresIn;
+  }
+
+  public void setExpiresIn(long expiresIn) {
+    this.expiresIn = expiresIn;
+  }
+}
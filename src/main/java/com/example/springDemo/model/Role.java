@@ -1,6 +1,77 @@
 package com.example.springDemo.model;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Roles are stored as a bitmask in {@code users.role_mask}. The bits are fixed, because they are
+ * persisted: never reorder or reuse them, and give a new role the next free bit. Keep the
+ * migration in {@code sql/postgres-init.sql} in sync. Authority lists are built once per role
+ * combination and shared.
+ */
 public enum Role {
-  ROLE_USER,
-  ROLE_ADMIN
-}
\ No newline at end of file
+  ROLE_USER(1),
+  ROLE_ADMIN(1 << 1);
+
+  private static final Role[] ROLES = values();
+  private static final int ALL = maskOf(EnumSet.allOf(Role.class));
+  // 下标就是掩码，每种组合一个不可变列表
+  private static final List<List<GrantedAuthority>> AUTHORITIES = precomputeAuthorities();
+
+  private final int bit;
+
+  Role(int bit) {
+    this.bit = bit;
+  }
+
+  public int getBit() {
+    return bit;
+  }
+
+  public static int maskOf(Collection<Role> roles) {
+    int mask = 0;
+    for (Role role : roles) {
+      mask |= role.bit;
+    }
+    return mask;
+  }
+
+  public static Set<Role> fromMask(int mask) {
+    EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+    for (Role role : ROLES) {
+      if ((mask & role.bit) != 0) {
+        roles.add(role);
+      }
+    }
+    return roles;
+  }
+
+  // 未知的位（比如新版本写入的角色）直接忽略
+  public static List<GrantedAuthority> authorities(int mask) {
+    return AUTHORITIES.get(mask & ALL);
+  }
+
+  private static List<List<GrantedAuthority>> precomputeAuthorities() {
+    List<GrantedAuthority> single = new ArrayList<>();
+    for (Role role : ROLES) {
+      single.add(new SimpleGrantedAuthority(role.name()));
+    }
+    List<List<GrantedAuthority>> byMask = new ArrayList<>();
+    for (int mask = 0; mask <= ALL; mask++) {
+      List<GrantedAuthority> authorities = new ArrayList<>();
+      for (Role role : ROLES) {
+        if ((mask & role.bit) != 0) {
+          authorities.add(single.get(role.ordinal()));
+        }
+      }
+      byMask.add(List.copyOf(authorities));
+    }
+    return List.copyOf(byMask);
+  }
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
 
 @Entity
@@ -25,6 +26,10 @@ public class Student {
   @Column(name = "credit_card_number")
   private String creditCardNumber;
 
+  // 乐观锁版本号，同时作为 HTTP ETag
+  @Version
+  private Long version;
+
   // 默认构造函数
   public Student() {
   }
@@ -78,6 +83,14 @@ public class Student {
     this.creditCardNumber = creditCardNumber;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   @Override
   public String toString() {
     return "Student{" +
@@ -87,6 +100,7 @@ public class Student {
         ", ssn='" + ssn + '\'' +
         ", birth=" + birth +
         ", creditCardNumber='" + creditCardNumber + '\'' +
+        ", version=" + version +
         '}';
   }
 }
\ No newline at end of file
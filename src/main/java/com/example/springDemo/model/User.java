@@ -1,7 +1,10 @@
 package com.example.springDemo.model;
 
 import jakarta.persistence.*;
-import java.util.HashSet;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
 import java.util.Set;
 
 @Entity
@@ -28,15 +31,26 @@ public class User {
 
   private String providerId; // ID from the provider
 
-  @ElementCollection(fetch = FetchType.EAGER)
-  @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
-  @Enumerated(EnumType.STRING)
-  @Column(name = "role")
-  private Set<Role> roles = new HashSet<>();
+  // 角色按位存在本表（见 Role），读用户是单表单行查询，不再关联 user_roles
+  @ColumnDefault("0")
+  @Column(name = "role_mask", nullable = false)
+  private int roleMask;
 
   public User() {
   }
 
+  // 浅拷贝全部字段（都是不可变值），用于缓存
+  public User(User other) {
+    this.id = other.id;
+    this.username = other.username;
+    this.password = other.password;
+    this.email = other.email;
+    this.name = other.name;
+    this.provider = other.provider;
+    this.providerId = other.providerId;
+    this.roleMask = other.roleMask;
+  }
+
   // Getters and Setters
   public Long getId() {
     return id;
@@ -94,15 +108,29 @@ public class User {
     this.providerId = providerId;
   }
 
+  // 返回副本，修改角色要通过 setRoles / addRole
   public Set<Role> getRoles() {
-    return roles;
+    return Role.fromMask(roleMask);
   }
 
   public void setRoles(Set<Role> roles) {
-    this.roles = roles;
+    this.roleMask = Role.maskOf(roles);
   }
 
   public void addRole(Role role) {
-    this.roles.add(role);
+    this.roleMask |= role.getBit();
+  }
+
+  public int getRoleMask() {
+    return roleMask;
+  }
+
+  public void setRoleMask(int roleMask) {
+    this.roleMask = roleMask;
+  }
+
+  // 同一角色组合共享同一个不可变列表
+  public List<GrantedAuthority> getAuthorities() {
+    return Role.authorities(roleMask);
   }
 }
\ No newline at end of file
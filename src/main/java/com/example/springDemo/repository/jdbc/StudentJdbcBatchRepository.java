@@ -0,0 +1,100 @@
+package com.example.springDemo.repository.jdbc;
+
+import com.example.springDemo.model.Student;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Plain JDBC batch insert for students, bypassing Hibernate (IDENTITY ids disable
+ * Hibernate's own insert batching). Rows are sent {@code batchSize} at a time and
+ * committed every {@code chunkSize} rows; the driver URL flags
+ * ({@code reWriteBatchedInserts} / {@code rewriteBatchedStatements}) turn each batch
+ * into multi-row INSERT statements. The generated ids are read back after each batch and
+ * returned, so callers can update in-memory indexes for exactly the inserted rows. One instance
+ * per datasource, see the DbConfig classes.
+ */
+public class StudentJdbcBatchRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO students (name, age, ssn, birth, credit_card_number, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final int chunkSize;
+
+  public StudentJdbcBatchRepository(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    int batchSize, int chunkSize) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.chunkSize = Math.max(chunkSize, batchSize);
+  }
+
+  /**
+   * @param onChunkCommitted called after each committed chunk with its rows and their generated
+   *                         ids, so the chunks already committed are known even if a later one fails
+   * @return the number of inserted rows
+   */
+  public int insertAll(List<Student> students, BiConsumer<List<Student>, long[]> onChunkCommitted) {
+    int inserted = 0;
+    for (int from = 0; from < students.size(); from += chunkSize) {
+      List<Student> chunk = students.subList(from, Math.min(from + chunkSize, students.size()));
+      onChunkCommitted.accept(chunk, insertChunk(chunk));
+      inserted += chunk.size();
+    }
+    return inserted;
+  }
+
+  /**
+   * Inserts one chunk in its own transaction: a failure rolls back only this chunk, and
+   * chunks committed earlier stay. Returns the generated ids in row order. The array is
+   * shorter than the chunk only if the driver did not report every key.
+   */
+  public long[] insertChunk(List<Student> chunk) {
+    return transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<long[]>) con -> {
+      long[] ids = new long[chunk.size()];
+      int keys = 0;
+      try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+        for (int i = 0; i < chunk.size(); i++) {
+          bind(ps, chunk.get(i));
+          ps.addBatch();
+          if ((i + 1) % batchSize == 0 || i + 1 == chunk.size()) {
+            // rewritten batches report SUCCESS_NO_INFO instead of per-row counts, but still return the keys
+            ps.executeBatch();
+            try (ResultSet generated = ps.getGeneratedKeys()) {
+              while (generated.next() && keys < ids.length) {
+                ids[keys++] = generated.getLong(1);
+              }
+            }
+          }
+        }
+      }
+      return keys == ids.length ? ids : Arrays.copyOf(ids, keys);
+    }));
+  }
+
+  private static void bind(PreparedStatement ps, Student student) throws SQLException {
+    ps.setString(1, student.getName());
+    if (student.getAge() != null) {
+      ps.setInt(2, student.getAge());
+    } else {
+      ps.setNull(2, Types.INTEGER);
+    }
+    ps.setString(3, student.getSsn());
+    ps.setDate(4, student.getBirth() != null ? Date.valueOf(student.getBirth()) : null);
+    ps.setString(5, student.getCreditCardNumber());
+  }
+}
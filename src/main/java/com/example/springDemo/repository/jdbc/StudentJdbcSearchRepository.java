@@ -0,0 +1,101 @@
+package com.example.springDemo.repository.jdbc;
+
+import com.example.springDemo.dto.StudentSearchCriteria;
+import com.example.springDemo.model.Student;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-criteria student search. Only the predicates that are actually set are emitted,
+ * each in a sargable form, so the composite indexes from the init scripts
+ * ({@code (name, age, birth)}, {@code (age, birth)}, {@code (birth)}) can serve them.
+ * The ORDER BY follows the leading indexed column of the query. The query plans are
+ * checked by StudentSearchQueryPlanTest.
+ */
+public class StudentJdbcSearchRepository {
+
+  private static final String SELECT_STUDENTS =
+      "SELECT id, name, age, ssn, birth, credit_card_number, version FROM students";
+
+  private static final RowMapper<Student> STUDENT_ROW_MAPPER = (rs, rowNum) -> {
+    Student student = new Student();
+    student.setId(rs.getLong("id"));
+    student.setName(rs.getString("name"));
+    student.setAge(rs.getObject("age", Integer.class));
+    student.setSsn(rs.getString("ssn"));
+    Date birth = rs.getDate("birth");
+    student.setBirth(birth != null ? birth.toLocalDate() : null);
+    student.setCreditCardNumber(rs.getString("credit_card_number"));
+    student.setVersion(rs.getObject("version", Long.class));
+    return student;
+  };
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public StudentJdbcSearchRepository(DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  public List<Student> search(StudentSearchCriteria criteria, int page, int size) {
+    SearchQuery query = buildQuery(criteria, page, size);
+    return jdbcTemplate.query(query.sql(), STUDENT_ROW_MAPPER, query.args().toArray());
+  }
+
+  static SearchQuery buildQuery(StudentSearchCriteria criteria, int page, int size) {
+    List<String> predicates = new ArrayList<>();
+    List<Object> args = new ArrayList<>();
+    String orderBy = "id";
+
+    String namePrefix = criteria.getNamePrefix();
+    if (namePrefix != null && !namePrefix.isEmpty()) {
+      // 前缀匹配必须写成 LIKE 'abc%'，才能走 name 索引（PostgreSQL 上是 varchar_pattern_ops 索引）
+      predicates.add("name LIKE ? ESCAPE '!'");
+      args.add(escapeLike(namePrefix) + "%");
+      orderBy = "name, id";
+    }
+    if (criteria.getMinAge() != null) {
+      predicates.add("age >= ?");
+      args.add(criteria.getMinAge());
+    }
+    if (criteria.getMaxAge() != null) {
+      predicates.add("age <= ?");
+      args.add(criteria.getMaxAge());
+    }
+    if ("id".equals(orderBy) && (criteria.getMinAge() != null || criteria.getMaxAge() != null)) {
+      orderBy = "age, id";
+    }
+    if (criteria.getBornFrom() != null) {
+      predicates.add("birth >= ?");
+      args.add(Date.valueOf(criteria.getBornFrom()));
+    }
+    if (criteria.getBornTo() != null) {
+      predicates.add("birth <= ?");
+      args.add(Date.valueOf(criteria.getBornTo()));
+    }
+    if ("id".equals(orderBy) && (criteria.getBornFrom() != null || criteria.getBornTo() != null)) {
+      orderBy = "birth, id";
+    }
+
+    StringBuilder sql = new StringBuilder(SELECT_STUDENTS);
+    if (!predicates.isEmpty()) {
+      sql.append(" WHERE ").append(String.join(" AND ", predicates));
+    }
+    sql.append(" ORDER BY ").append(orderBy).append(" LIMIT ? OFFSET ?");
+    args.add(size);
+    args.add((long) page * size);
+    return new SearchQuery(sql.toString(), args);
+  }
+
+  // '!' 作为转义符：反斜杠在 MySQL 和 PostgreSQL 字符串字面量里的含义不同
+  private static String escapeLike(String value) {
+    return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+  }
+
+  record SearchQuery(String sql, List<Object> args) {
+  }
+}
@@ -1,13 +1,69 @@
 package com.example.springDemo.repository.mysql;
 
+import com.example.springDemo.dto.StudentDTO;
 import com.example.springDemo.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MysqlStudentRepository extends JpaRepository<Student, Long> {
   List<Student> findByName(String name);
   List<Student> findByAgeGreaterThan(Integer age);
-}
\ No newline at end of file
+
+  // 构造器投影：只查 id/name/age，结果不是托管实体，不进持久化上下文也没有脏检查
+  @Query("select new com.example.springDemo.dto.StudentDTO(s.id, s.name, s.age) from Student s")
+  List<StudentDTO> findAllSummaries();
+
+  // 按 (age, id) 排序，用于构建内存年龄索引
+  @Query("select new com.example.springDemo.dto.StudentDTO(s.id, s.name, s.age) from Student s "
+      + "where s.age is not null order by s.age, s.id")
+  List<StudentDTO> findAllSummariesOrderedByAge();
+
+  @Query("select new com.example.springDemo.dto.StudentDTO(s.id, s.name, s.age) from Student s where s.name = :name")
+  List<StudentDTO> findSummariesByName(@Param("name") String name);
+
+  @Query("select new com.example.springDemo.dto.StudentDTO(s.id, s.name, s.age) from Student s where s.age > :age")
+  List<StudentDTO> findSummariesByAgeGreaterThan(@Param("age") Integer age);
+
+  // keyset 分页：WHERE id > :afterId ORDER BY id LIMIT n，走主键索引，不受 offset 深度影响
+  List<Student> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+  // MySQL Connector/J 只有在 fetchSize = Integer.MIN_VALUE 时才逐行流式读取，否则会把整个结果集缓存在客户端
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select s from Student s order by s.id")
+  Stream<Student> streamAllByOrderByIdAsc();
+
+  // 单条语句的更新/删除，返回受影响行数（0 表示记录不存在或版本不匹配），不经过 find + merge
+  @Modifying
+  @Query("update Student s set s.name = :#{#student.name}, s.age = :#{#student.age}, s.ssn = :#{#student.ssn}, "
+      + "s.birth = :#{#student.birth}, s.creditCardNumber = :#{#student.creditCardNumber}, "
+      + "s.version = coalesce(s.version, 0) + 1 where s.id = :id")
+  int updateById(@Param("id") Long id, @Param("student") Student student);
+
+  @Modifying
+  @Query("update Student s set s.name = :#{#student.name}, s.age = :#{#student.age}, s.ssn = :#{#student.ssn}, "
+      + "s.birth = :#{#student.birth}, s.creditCardNumber = :#{#student.creditCardNumber}, "
+      + "s.version = s.version + 1 where s.id = :id and s.version = :version")
+  int updateByIdAndVersion(@Param("id") Long id, @Param("version") Long version, @Param("student") Student student);
+
+  @Modifying
+  @Query("delete from Student s where s.id = :id")
+  int removeById(@Param("id") Long id);
+
+  @Modifying
+  @Query("delete from Student s where s.id = :id and s.version = :version")
+  int removeByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+}
@@ -3,13 +3,22 @@ package com.example.springDemo.repository.postgres;
 import com.example.springDemo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+  // 派生查询默认不带事务，显式标成只读，配置了副本时走副本
+  @Transactional(readOnly = true)
   Optional<User> findByUsername(String username);
+
+  @Transactional(readOnly = true)
   Optional<User> findByEmail(String email);
+
+  @Transactional(readOnly = true)
   Boolean existsByUsername(String username);
+
+  @Transactional(readOnly = true)
   Boolean existsByEmail(String email);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.example.springDemo.service;
+
+import com.example.springDemo.dto.FederatedResult;
+import com.example.springDemo.dto.FederatedStudent;
+
+// 同时查询 PostgreSQL 和 MySQL 并合并结果（只读），每行标明来源库
+public interface FederatedStudentService {
+  FederatedResult<FederatedStudent> getAllStudents();
+  FederatedResult<FederatedStudent> findStudentsByName(String name);
+  FederatedResult<FederatedStudent> findStudentsOlderThan(Integer age);
+}
@@ -0,0 +1,16 @@
+package com.example.springDemo.service;
+
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.model.Student;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// StudentService 的非阻塞读接口（R2DBC），用于和 JPA 实现并排压测
+public interface ReactiveStudentService {
+  Flux<Student> getAllStudents();
+  Mono<Student> getStudentById(Long id);
+  Flux<Student> findStudentsByName(String name);
+  Flux<Student> findStudentsOlderThan(Integer age);
+  Flux<StudentDTO> getAllStudentSummaries();
+  Flux<Student> getStudentsAfter(Long afterId, int limit);
+}
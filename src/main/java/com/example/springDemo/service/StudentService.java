@@ -1,14 +1,39 @@
 package com.example.springDemo.service;
 
+import com.example.springDemo.dto.ImportResult;
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.dto.StudentNameMatch;
+import com.example.springDemo.dto.StudentSearchCriteria;
 import com.example.springDemo.model.Student;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface StudentService {
   List<Student> getAllStudents();
   Optional<Student> getStudentById(Long id);
   Student saveStudent(Student student);
   void deleteStudent(Long id);
+  int saveAll(List<Student> students);
+  // CSV 流式导入，按 chunk 提交，返回导入数与被拒绝的行
+  ImportResult importStudents(Reader csv) throws IOException;
+
+  // 单次往返的条件写入：expectedVersion 为 null 时不校验版本，返回受影响行数
+  int updateStudent(Long id, Long expectedVersion, Student student);
+  int deleteStudent(Long id, Long expectedVersion);
   List<Student> findStudentsByName(String name);
   List<Student> findStudentsOlderThan(Integer age);
-}
\ No newline at end of file
+  List<Student> searchStudents(StudentSearchCriteria criteria, int page, int size);
+  List<StudentNameMatch> searchStudentsByName(String query, int limit);
+
+  // 摘要视图（id/name/age），直接投影到 DTO，不加载 ssn、birth、信用卡号
+  List<StudentDTO> getAllStudentSummaries();
+  List<StudentDTO> findStudentSummariesByName(String name);
+  List<StudentDTO> findStudentSummariesOlderThan(Integer age);
+
+  // 大表读取：keyset 分页与流式遍历，内存占用与表大小无关
+  List<Student> getStudentsAfter(Long afterId, int limit);
+  void streamAllStudents(Consumer<Student> consumer);
+}
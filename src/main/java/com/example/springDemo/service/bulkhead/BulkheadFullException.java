@@ -0,0 +1,16 @@
+package com.example.springDemo.service.bulkhead;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+// 拒绝是常态化的快速失败路径，不生成堆栈，避免在过载时额外消耗 CPU
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+  public BulkheadFullException(String source, int maxConcurrent, Duration maxWait) {
+    super("Datasource '" + source + "' is saturated: " + maxConcurrent
+        + " calls in flight, no permit within " + maxWait.toMillis() + " ms", null, false, false);
+  }
+}
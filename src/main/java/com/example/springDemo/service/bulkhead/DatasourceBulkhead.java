@@ -0,0 +1,85 @@
+package com.example.springDemo.service.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for calls into one datasource. At most {@code maxConcurrent} calls run
+ * at once, normally the size of the datasource's connection pool. A caller waits up to
+ * {@code maxWait} for a permit and is then rejected with {@link BulkheadFullException}.
+ * Because each datasource has its own bulkhead, a saturated MySQL only queues MySQL
+ * callers and Postgres traffic keeps flowing. Callers run on virtual threads, so the
+ * waiting ones cost no platform threads.
+ *
+ * <p>Exposed as {@code students.bulkhead.*} meters, tagged by source: active, waiting
+ * and max concurrent calls, rejected calls, and time spent waiting for a permit.
+ */
+public class DatasourceBulkhead {
+
+  @FunctionalInterface
+  public interface Call<T> {
+    T run() throws Throwable;
+  }
+
+  private final String source;
+  private final int maxConcurrent;
+  private final Duration maxWait;
+  private final Semaphore permits;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final Counter rejected;
+  private final Timer waitTimer;
+
+  public DatasourceBulkhead(String source, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+    this.source = source;
+    this.maxConcurrent = maxConcurrent;
+    this.maxWait = maxWait;
+    // 公平模式：按到达顺序发放许可，避免排队的请求被后来者反复插队直到超时
+    this.permits = new Semaphore(maxConcurrent, true);
+    Gauge.builder("students.bulkhead.active", this, DatasourceBulkhead::getActiveCalls)
+        .tag("source", source).register(meterRegistry);
+    Gauge.builder("students.bulkhead.waiting", waiting, AtomicInteger::get)
+        .tag("source", source).register(meterRegistry);
+    Gauge.builder("students.bulkhead.max.concurrent", () -> maxConcurrent)
+        .tag("source", source).register(meterRegistry);
+    this.rejected = Counter.builder("students.bulkhead.rejected")
+        .tag("source", source).register(meterRegistry);
+    this.waitTimer = Timer.builder("students.bulkhead.wait")
+        .tag("source", source).register(meterRegistry);
+  }
+
+  public <T> T execute(Call<T> call) throws Throwable {
+    long start = System.nanoTime();
+    waiting.incrementAndGet();
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+    } finally {
+      waiting.decrementAndGet();
+      waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    if (!acquired) {
+      rejected.increment();
+      throw new BulkheadFullException(source, maxConcurrent, maxWait);
+    }
+    try {
+      return call.run();
+    } finally {
+      permits.release();
+    }
+  }
+
+  public int getActiveCalls() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  public int getWaitingCalls() {
+    return waiting.get();
+  }
+}
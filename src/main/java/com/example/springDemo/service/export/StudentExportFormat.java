@@ -0,0 +1,28 @@
+package com.example.springDemo.service.export;
+
+import java.util.Locale;
+
+public enum StudentExportFormat {
+  CSV("text/csv", "csv"),
+  NDJSON("application/x-ndjson", "ndjson");
+
+  private final String contentType;
+  private final String extension;
+
+  StudentExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public static StudentExportFormat from(String value) {
+    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+}
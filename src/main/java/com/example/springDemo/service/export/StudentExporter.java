@@ -0,0 +1,186 @@
+package com.example.springDemo.service.export;
+
+import com.example.springDemo.dto.ExportResult;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.StudentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes every student of one datasource as CSV or NDJSON, optionally gzipped. Rows come
+ * from {@link StudentService#streamAllStudents}, a forward-only cursor. Each row is
+ * encoded into a fixed-size buffer as it arrives, so memory use does not depend on the
+ * table size. The target is either a caller-supplied stream (an HTTP response) or a
+ * file written through a {@link FileChannel}.
+ */
+@Component
+public class StudentExporter {
+
+  private static final Logger logger = LoggerFactory.getLogger(StudentExporter.class);
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final String CSV_HEADER = "id,name,age,ssn,birth,credit_card_number,version\n";
+
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public StudentExporter(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  // 写入调用方的输出流（例如 HTTP 响应），结束时只 flush 不 close
+  public ExportResult export(StudentService studentService, String source, StudentExportFormat format,
+                             boolean gzip, OutputStream target) throws IOException {
+    long start = System.nanoTime();
+    CountingOutputStream counting = new CountingOutputStream(target);
+    GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(counting, BUFFER_SIZE) : null;
+    OutputStream out = gzipStream != null ? gzipStream : counting;
+
+    long rows = format == StudentExportFormat.CSV
+        ? writeCsv(studentService, out)
+        : writeNdjson(studentService, out);
+    if (gzipStream != null) {
+      gzipStream.finish();
+    }
+    counting.flush();
+
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    ExportResult result = new ExportResult(source, format.getExtension() + (gzip ? ".gz" : ""),
+        rows, counting.getCount(), elapsedMillis);
+    logger.info("Exported {} students from {} as {}: {} bytes in {} ms ({} rows/s)",
+        rows, source, result.getFormat(), result.getBytesWritten(), elapsedMillis, result.getRowsPerSecond());
+    return result;
+  }
+
+  public ExportResult exportToFile(StudentService studentService, String source, StudentExportFormat format,
+                                   boolean gzip, Path file) throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+         OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+      ExportResult result = export(studentService, source, format, gzip, out);
+      result.setFile(file.toAbsolutePath().toString());
+      return result;
+    }
+  }
+
+  private long writeCsv(StudentService studentService, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    writer.write(CSV_HEADER);
+    AtomicLong rows = new AtomicLong();
+    studentService.streamAllStudents(student -> {
+      try {
+        writeCsvRow(writer, student);
+        rows.incrementAndGet();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    writer.flush();
+    return rows.get();
+  }
+
+  private long writeNdjson(StudentService studentService, OutputStream out) throws IOException {
+    AtomicLong rows = new AtomicLong();
+    try (SequenceWriter writer = objectMapper.writer()
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .withRootValueSeparator("\n")
+        .writeValues(out)) {
+      studentService.streamAllStudents(student -> {
+        try {
+          writer.write(student);
+          rows.incrementAndGet();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+    return rows.get();
+  }
+
+  private static void writeCsvRow(Writer writer, Student student) throws IOException {
+    writer.write(String.valueOf(student.getId()));
+    writer.write(',');
+    writeCsvField(writer, student.getName());
+    writer.write(',');
+    writeCsvField(writer, student.getAge());
+    writer.write(',');
+    writeCsvField(writer, student.getSsn());
+    writer.write(',');
+    writeCsvField(writer, student.getBirth());
+    writer.write(',');
+    writeCsvField(writer, student.getCreditCardNumber());
+    writer.write(',');
+    writeCsvField(writer, student.getVersion());
+    writer.write('\n');
+  }
+
+  // RFC 4180：含逗号、引号或换行的字段用双引号包起来，内部引号写两次
+  private static void writeCsvField(Writer writer, Object value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    String text = value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      writer.write(text);
+      return;
+    }
+    writer.write('"');
+    writer.write(text.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+
+    // 只 flush，不关闭底层流（HTTP 响应由容器负责关闭）
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+
+    long getCount() {
+      return count;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.springDemo.service.impl;
+
+import com.example.springDemo.dto.FederatedResult;
+import com.example.springDemo.dto.FederatedStudent;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.FederatedStudentService;
+import com.example.springDemo.service.StudentService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Fans each read out to both datasources on virtual threads, so the latency is that of
+ * the slower backend rather than the sum. A source that fails or exceeds
+ * {@code app.students.federated.timeout} is reported in the result instead of failing
+ * the whole call. Rows of one source are all kept, since their ids are distinct. Only a row that
+ * duplicates a row of a source merged earlier is dropped. Each row carries the source it came
+ * from, because the two databases assign ids independently and the same id can appear twice.
+ */
+@Service
+public class FederatedStudentServiceImpl implements FederatedStudentService {
+
+  private static final Logger logger = LoggerFactory.getLogger(FederatedStudentServiceImpl.class);
+
+  private final Map<String, StudentService> sources = new LinkedHashMap<>();
+  private final Duration timeout;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @Autowired
+  public FederatedStudentServiceImpl(
+      @Qualifier("postgresStudentService") StudentService postgresStudentService,
+      @Qualifier("mysqlStudentService") StudentService mysqlStudentService,
+      @Value("${app.students.federated.timeout:2s}") Duration timeout) {
+    // 插入顺序即合并优先级：重复记录保留 postgres 的版本
+    this.sources.put("postgres", postgresStudentService);
+    this.sources.put("mysql", mysqlStudentService);
+    this.timeout = timeout;
+  }
+
+  @Override
+  public FederatedResult<FederatedStudent> getAllStudents() {
+    return federate(StudentService::getAllStudents);
+  }
+
+  @Override
+  public FederatedResult<FederatedStudent> findStudentsByName(String name) {
+    return federate(service -> service.findStudentsByName(name));
+  }
+
+  @Override
+  public FederatedResult<FederatedStudent> findStudentsOlderThan(Integer age) {
+    return federate(service -> service.findStudentsOlderThan(age));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private FederatedResult<FederatedStudent> federate(Function<StudentService, List<Student>> query) {
+    Map<String, Future<List<Student>>> futures = new LinkedHashMap<>();
+    sources.forEach((source, service) -> futures.put(source, executor.submit(() -> query.apply(service))));
+
+    // 每个数据源都从同一起点计时，各自最多等待 timeout
+    long deadline = System.nanoTime() + timeout.toNanos();
+    List<FederatedStudent> merged = new ArrayList<>();
+    // 只记录前面数据源的业务键，同一个库里的行按 id 区分，不互相去重
+    Set<Object> mergedIdentities = new HashSet<>();
+    List<String> answeredSources = new ArrayList<>();
+    List<String> failedSources = new ArrayList<>();
+    for (Map.Entry<String, Future<List<Student>>> entry : futures.entrySet()) {
+      String source = entry.getKey();
+      Future<List<Student>> future = entry.getValue();
+      try {
+        List<Student> students = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        List<Object> identities = new ArrayList<>(students.size());
+        for (Student student : students) {
+          Object identity = identityOf(student);
+          if (identity == null || !mergedIdentities.contains(identity)) {
+            merged.add(new FederatedStudent(source, student));
+          }
+          if (identity != null) {
+            identities.add(identity);
+          }
+        }
+        mergedIdentities.addAll(identities);
+        answeredSources.add(source);
+      } catch (TimeoutException e) {
+        future.cancel(true);
+        failedSources.add(source);
+        logger.warn("Federated query timed out on {} after {}", source, timeout);
+      } catch (ExecutionException e) {
+        failedSources.add(source);
+        logger.warn("Federated query failed on {}: {}", source, e.getCause().getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.values().forEach(f -> f.cancel(true));
+        throw new IllegalStateException("Interrupted while waiting for federated query", e);
+      }
+    }
+    return new FederatedResult<>(merged, answeredSources, failedSources);
+  }
+
+  // 两个库的自增 id 互不相关，跨库只能按业务字段去重：优先 ssn，没有 ssn 时用 name + birth，都没有就不去重
+  private static Object identityOf(Student student) {
+    if (student.getSsn() != null && !student.getSsn().isEmpty()) {
+      return student.getSsn();
+    }
+    if (student.getName() == null || student.getBirth() == null) {
+      return null;
+    }
+    return List.of(student.getName(), student.getBirth());
+  }
+}
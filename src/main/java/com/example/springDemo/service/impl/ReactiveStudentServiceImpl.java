@@ -0,0 +1,96 @@
+package com.example.springDemo.service.impl;
+
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.ReactiveStudentService;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * R2DBC implementation of {@link ReactiveStudentService}; one instance per datasource,
+ * see R2dbcConfig. {@link DatabaseClient} rewrites the {@code :name} parameters into each
+ * driver's bind markers, so the SQL is shared by PostgreSQL and MySQL. Results are emitted
+ * as rows arrive and respect downstream demand, so a slow client slows the cursor down
+ * instead of buffering the table.
+ *
+ * <p>Read-only: writes stay on the JPA services, which keep the Caffeine cache and the
+ * in-memory age/name indexes in sync.
+ */
+public class ReactiveStudentServiceImpl implements ReactiveStudentService {
+
+  private static final String SELECT_STUDENTS =
+      "SELECT id, name, age, ssn, birth, credit_card_number, version FROM students";
+  private static final int FETCH_SIZE = 500;
+
+  private final DatabaseClient databaseClient;
+
+  public ReactiveStudentServiceImpl(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  @Override
+  public Flux<Student> getAllStudents() {
+    return databaseClient.sql(SELECT_STUDENTS + " ORDER BY id")
+        .filter(statement -> statement.fetchSize(FETCH_SIZE))
+        .map(ReactiveStudentServiceImpl::toStudent)
+        .all();
+  }
+
+  @Override
+  public Mono<Student> getStudentById(Long id) {
+    return databaseClient.sql(SELECT_STUDENTS + " WHERE id = :id")
+        .bind("id", id)
+        .map(ReactiveStudentServiceImpl::toStudent)
+        .one();
+  }
+
+  @Override
+  public Flux<Student> findStudentsByName(String name) {
+    return databaseClient.sql(SELECT_STUDENTS + " WHERE name = :name")
+        .bind("name", name)
+        .map(ReactiveStudentServiceImpl::toStudent)
+        .all();
+  }
+
+  @Override
+  public Flux<Student> findStudentsOlderThan(Integer age) {
+    return databaseClient.sql(SELECT_STUDENTS + " WHERE age > :age")
+        .bind("age", age)
+        .map(ReactiveStudentServiceImpl::toStudent)
+        .all();
+  }
+
+  @Override
+  public Flux<StudentDTO> getAllStudentSummaries() {
+    return databaseClient.sql("SELECT id, name, age FROM students ORDER BY id")
+        .filter(statement -> statement.fetchSize(FETCH_SIZE))
+        .map(row -> new StudentDTO(row.get("id", Long.class), row.get("name", String.class),
+            row.get("age", Integer.class)))
+        .all();
+  }
+
+  @Override
+  public Flux<Student> getStudentsAfter(Long afterId, int limit) {
+    return databaseClient.sql(SELECT_STUDENTS + " WHERE id > :afterId ORDER BY id LIMIT :limit")
+        .bind("afterId", afterId)
+        .bind("limit", limit)
+        .map(ReactiveStudentServiceImpl::toStudent)
+        .all();
+  }
+
+  private static Student toStudent(Readable row) {
+    Student student = new Student();
+    student.setId(row.get("id", Long.class));
+    student.setName(row.get("name", String.class));
+    student.setAge(row.get("age", Integer.class));
+    student.setSsn(row.get("ssn", String.class));
+    student.setBirth(row.get("birth", LocalDate.class));
+    student.setCreditCardNumber(row.get("credit_card_number", String.class));
+    student.setVersion(row.get("version", Long.class));
+    return student;
+  }
+}
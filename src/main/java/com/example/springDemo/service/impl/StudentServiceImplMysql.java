@@ -1,30 +1,105 @@
 package com.example.springDemo.service.impl;
 
+import com.example.springDemo.config.CacheConfig;
+import com.example.springDemo.dto.ImportResult;
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.dto.StudentNameMatch;
+import com.example.springDemo.dto.StudentSearchCriteria;
 import com.example.springDemo.model.Student;
+import com.example.springDemo.repository.jdbc.StudentJdbcBatchRepository;
+import com.example.springDemo.repository.jdbc.StudentJdbcSearchRepository;
 import com.example.springDemo.repository.mysql.MysqlStudentRepository;
 import com.example.springDemo.service.StudentService;
+import com.example.springDemo.service.importer.StudentCsvImporter;
+import com.example.springDemo.service.index.StudentAgeIndex;
+import com.example.springDemo.service.index.StudentNameIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service("mysqlStudentService")
 public class StudentServiceImplMysql implements StudentService {
 
+  private static final Logger logger = LoggerFactory.getLogger(StudentServiceImplMysql.class);
+
+  private static final int HYDRATION_BATCH_SIZE = 1000;
+
   private final MysqlStudentRepository studentRepository;
+  private final StudentJdbcBatchRepository studentBatchRepository;
+  private final StudentJdbcSearchRepository studentSearchRepository;
+  private final StudentCsvImporter studentCsvImporter;
+  private final boolean ageIndexEnabled;
+  private final StudentAgeIndex ageIndex = new StudentAgeIndex();
+  private final boolean nameIndexEnabled;
+  private final StudentNameIndex nameIndex = new StudentNameIndex();
+
+  // 流式读取时逐个 detach，避免持久化上下文随结果集增长
+  @PersistenceContext(unitName = "mysql")
+  private EntityManager entityManager;
 
   @Autowired
-  public StudentServiceImplMysql(MysqlStudentRepository studentRepository) {
+  public StudentServiceImplMysql(MysqlStudentRepository studentRepository,
+      @Qualifier("mysqlStudentBatchRepository") StudentJdbcBatchRepository studentBatchRepository,
+      @Qualifier("mysqlStudentSearchRepository") StudentJdbcSearchRepository studentSearchRepository,
+      StudentCsvImporter studentCsvImporter,
+      @Value("${app.students.age-index.mysql.enabled:false}") boolean ageIndexEnabled,
+      @Value("${app.students.name-index.mysql.enabled:true}") boolean nameIndexEnabled,
+      MeterRegistry meterRegistry) {
     this.studentRepository = studentRepository;
+    this.studentBatchRepository = studentBatchRepository;
+    this.studentSearchRepository = studentSearchRepository;
+    this.studentCsvImporter = studentCsvImporter;
+    this.ageIndexEnabled = ageIndexEnabled;
+    this.nameIndexEnabled = nameIndexEnabled;
+    Gauge.builder("students.name.index.entries", nameIndex, StudentNameIndex::size)
+        .tag("source", "mysql").register(meterRegistry);
+    Gauge.builder("students.name.index.bytes", nameIndex, StudentNameIndex::estimatedBytes)
+        .tag("source", "mysql").baseUnit("bytes").register(meterRegistry);
+  }
+
+  // 等 DatabaseInitializer 执行完初始化脚本后再加载内存索引
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadIndexes() {
+    if (ageIndexEnabled) {
+      ageIndex.load(studentRepository::findAllSummariesOrderedByAge);
+    }
+    if (nameIndexEnabled) {
+      nameIndex.load(studentRepository::findAllSummaries);
+    }
   }
 
   @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
   public List<Student> getAllStudents() {
     return studentRepository.findAll();
   }
 
   @Override
+  @Cacheable(cacheNames = CacheConfig.MYSQL_STUDENTS, key = "#id", unless = "#result == null")
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
   public Optional<Student> getStudentById(Long id) {
     Optional<Student> byId = studentRepository.findById(id);
     Student std = byId.orElse(null);
@@ -36,22 +111,169 @@ public class StudentServiceImplMysql implements StudentService {
   }
 
   @Override
+  @CachePut(cacheNames = CacheConfig.MYSQL_STUDENTS, key = "#result.id")
   public Student saveStudent(Student student) {
-    return studentRepository.save(student);
+    Student saved = studentRepository.save(student);
+    ageIndex.upsert(saved.getId(), saved.getName(), saved.getAge());
+    nameIndex.upsert(saved.getId(), saved.getName());
+    return saved;
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.MYSQL_STUDENTS, key = "#id")
   public void deleteStudent(Long id) {
     studentRepository.deleteById(id);
+    ageIndex.remove(id);
+    nameIndex.remove(id);
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager")
+  @CacheEvict(cacheNames = CacheConfig.MYSQL_STUDENTS, key = "#id")
+  public int updateStudent(Long id, Long expectedVersion, Student student) {
+    int updated = expectedVersion == null
+        ? studentRepository.updateById(id, student)
+        : studentRepository.updateByIdAndVersion(id, expectedVersion, student);
+    if (updated > 0) {
+      ageIndex.upsert(id, student.getName(), student.getAge());
+      nameIndex.upsert(id, student.getName());
+    }
+    return updated;
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager")
+  @CacheEvict(cacheNames = CacheConfig.MYSQL_STUDENTS, key = "#id")
+  public int deleteStudent(Long id, Long expectedVersion) {
+    int deleted = expectedVersion == null
+        ? studentRepository.removeById(id)
+        : studentRepository.removeByIdAndVersion(id, expectedVersion);
+    if (deleted > 0) {
+      ageIndex.remove(id);
+      nameIndex.remove(id);
+    }
+    return deleted;
+  }
+
+  @Override
+  public int saveAll(List<Student> students) {
+    return studentBatchRepository.insertAll(students, this::indexInserted);
+  }
+
+  @Override
+  public ImportResult importStudents(Reader csv) throws IOException {
+    // MySQL 走 rewriteBatchedStatements 的多行 INSERT，只把生成的 id 对应的行写进内存索引
+    return studentCsvImporter.importCsv(csv, chunk -> {
+      long[] ids = studentBatchRepository.insertChunk(chunk);
+      indexInserted(chunk, ids);
+      return chunk.size();
+    });
+  }
+
+  // 批量写入后只更新本批的行，不再整表重读；驱动没有返回全部 id 时才退回后台整体重建
+  private void indexInserted(List<Student> chunk, long[] ids) {
+    if (ids.length != chunk.size()) {
+      logger.warn("Got {} generated ids for {} inserted rows, rebuilding the in-memory indexes in the background",
+          ids.length, chunk.size());
+      Thread.ofVirtual().name("mysql-index-reload").start(this::reloadIndexes);
+      return;
+    }
+    List<StudentDTO> rows = new ArrayList<>(ids.length);
+    for (int i = 0; i < ids.length; i++) {
+      rows.add(new StudentDTO(ids[i], chunk.get(i).getName(), chunk.get(i).getAge()));
+    }
+    ageIndex.upsertAll(rows);
+    nameIndex.upsertAll(rows);
+  }
+
+  private void reloadIndexes() {
+    if (ageIndex.isReady()) {
+      ageIndex.load(studentRepository::findAllSummariesOrderedByAge);
+    }
+    if (nameIndex.isReady()) {
+      nameIndex.load(studentRepository::findAllSummaries);
+    }
   }
 
   @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
   public List<Student> findStudentsByName(String name) {
     return studentRepository.findByName(name);
   }
 
   @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
   public List<Student> findStudentsOlderThan(Integer age) {
-    return studentRepository.findByAgeGreaterThan(age);
+    if (!ageIndex.isReady()) {
+      return studentRepository.findByAgeGreaterThan(age);
+    }
+    if (age == Integer.MAX_VALUE) {
+      return List.of();
+    }
+    // 索引二分定位 id，再分批 findAllById 加载实体（避免 IN 列表超过驱动参数上限）
+    long[] ids = ageIndex.idsInAgeRange(age + 1, Integer.MAX_VALUE);
+    List<Student> students = new ArrayList<>(ids.length);
+    for (int from = 0; from < ids.length; from += HYDRATION_BATCH_SIZE) {
+      long[] batch = Arrays.copyOfRange(ids, from, Math.min(from + HYDRATION_BATCH_SIZE, ids.length));
+      students.addAll(studentRepository.findAllById(Arrays.stream(batch).boxed().toList()));
+    }
+    return students;
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+  public List<Student> searchStudents(StudentSearchCriteria criteria, int page, int size) {
+    return studentSearchRepository.search(criteria, page, size);
+  }
+
+  @Override
+  public List<StudentNameMatch> searchStudentsByName(String query, int limit) {
+    if (nameIndex.isReady()) {
+      return nameIndex.search(query, limit);
+    }
+    // 索引未启用时退化为数据库前缀查询
+    StudentSearchCriteria criteria = new StudentSearchCriteria();
+    criteria.setNamePrefix(query);
+    return studentSearchRepository.search(criteria, 0, limit).stream()
+        .map(student -> new StudentNameMatch(student.getId(), student.getName(), 1.0))
+        .toList();
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+  public List<StudentDTO> getAllStudentSummaries() {
+    return studentRepository.findAllSummaries();
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+  public List<StudentDTO> findStudentSummariesByName(String name) {
+    return studentRepository.findSummariesByName(name);
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+  public List<StudentDTO> findStudentSummariesOlderThan(Integer age) {
+    if (!ageIndex.isReady()) {
+      return studentRepository.findSummariesByAgeGreaterThan(age);
+    }
+    return age == Integer.MAX_VALUE ? List.of() : ageIndex.summariesInAgeRange(age + 1, Integer.MAX_VALUE);
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+  public List<Student> getStudentsAfter(Long afterId, int limit) {
+    return studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+  }
+
+  @Override
+  @Transactional(transactionManager = "mysqlTransactionManager", readOnly = true)
+  public void streamAllStudents(Consumer<Student> consumer) {
+    try (Stream<Student> students = studentRepository.streamAllByOrderByIdAsc()) {
+      students.forEach(student -> {
+        consumer.accept(student);
+        entityManager.detach(student);
+      });
+    }
   }
-}
\ No newline at end of file
+}
@@ -1,10 +1,15 @@
 package com.example.springDemo.service.impl;
 
+import com.example.springDemo.config.CacheConfig;
 import com.example.springDemo.model.Role;
 import com.example.springDemo.model.User;
 import com.example.springDemo.repository.postgres.UserRepository;
 import com.example.springDemo.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
@@ -15,41 +20,60 @@ import org.springframework.stereotype.Service;
 
 import java.util.*;
 
+/**
+ * Users are cached (the {@value CacheConfig#USERS} cache, bounded with a TTL) under their email,
+ * username and OAuth2 login (provider, provider id and email). A repeat login with unchanged
+ * attributes is answered from the cache without touching the database. When the attributes are
+ * unchanged after a database read, the update is skipped. Writes evict the user's old keys and
+ * cache the saved user. The cache keeps its own copy of each user and every read returns a fresh
+ * copy, so callers may modify what they get without affecting other threads or the cache.
+ */
 @Service
 public class UserServiceImpl extends DefaultOAuth2UserService implements UserService {
 
+  private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
+
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final Cache userCache;
 
   @Autowired
-  public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, CacheManager cacheManager) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.userCache = cacheManager.getCache(CacheConfig.USERS);
   }
 
   // 基本用户管理实现
   @Override
   public User saveUser(User user) {
+    // 先清缓存：用户名、邮箱可能被改过，旧的键也要清掉
+    if (user.getId() != null) {
+      userRepository.findById(user.getId()).ifPresent(this::evict);
+    }
+    evict(user);
     // 确保密码被加密，如果密码不为空
     if (user.getPassword() != null && !user.getPassword().isEmpty()) {
       user.setPassword(passwordEncoder.encode(user.getPassword()));
     }
-    return userRepository.save(user);
+    return cache(userRepository.save(user));
   }
 
   @Override
   public Optional<User> findByUsername(String username) {
-    return userRepository.findByUsername(username);
+    User cached = userCache.get(usernameKey(username), User.class);
+    return cached != null ? Optional.of(new User(cached)) : userRepository.findByUsername(username).map(this::cache);
   }
 
   @Override
   public boolean existsByUsername(String username) {
-    return userRepository.existsByUsername(username);
+    return userCache.get(usernameKey(username), User.class) != null || userRepository.existsByUsername(username);
   }
 
   @Override
   public Optional<User> findByEmail(String email) {
-    return userRepository.findByEmail(email);
+    User cached = userCache.get(emailKey(email), User.class);
+    return cached != null ? Optional.of(new User(cached)) : userRepository.findByEmail(email).map(this::cache);
   }
 
   // OAuth2相关实现
@@ -69,9 +93,8 @@ public class UserServiceImpl extends DefaultOAuth2UserService implements UserSer
     Map<String, Object> attributes = new HashMap<>(oauth2User.getAttributes());
 
     // Log the process
-    System.out.println("OAuth2 login processed for: " + user.getUsername());
-    System.out.println("Provider: " + registrationId);
-    System.out.println("Attribute name: " + userNameAttributeName);
+    logger.debug("OAuth2 login processed for: {} (provider: {}, attribute name: {})",
+        user.getUsername(), registrationId, userNameAttributeName);
 
     return new DefaultOAuth2User(
         oauth2User.getAuthorities(),
@@ -91,22 +114,81 @@ public class UserServiceImpl extends DefaultOAuth2UserService implements UserSer
         // 可以使用用户名作为替代
         String login = (String) attributes.get("login");
         email = login + "@github.com"; // 创建一个基于用户名的伪邮箱
-        System.out.println("Using GitHub username as email: " + email);
+        logger.debug("Using GitHub username as email: {}", email);
       }
     } else {
       email = (String) attributes.get("email");
     }
 
+    // 快速路径：同一登录（provider + providerId + 邮箱）且属性没变，直接返回缓存，不访问数据库
+    String providerId = providerId(provider, attributes);
+    String name = (String) attributes.get("name");
+    User cached = userCache.get(loginKey(provider, providerId, email), User.class);
+    if (cached != null && !changed(cached, provider, providerId, name)) {
+      return new User(cached);
+    }
+
     // 查找现有用户
     Optional<User> existingUser = userRepository.findByEmail(email);
 
     if (existingUser.isPresent()) {
-      System.out.println("Found existing user: " + existingUser.get().getUsername());
-      return updateExistingUser(existingUser.get(), provider, attributes);
+      User user = existingUser.get();
+      logger.debug("Found existing user: {}", user.getUsername());
+      if (!changed(user, provider, providerId, name)) {
+        return cache(user);
+      }
+      evict(user);
+      return cache(updateExistingUser(user, provider, attributes));
     } else {
-      System.out.println("Creating new user for: " + email);
-      return registerNewUser(provider, attributes, email);
+      logger.debug("Creating new user for: {}", email);
+      return cache(registerNewUser(provider, attributes, email));
+    }
+  }
+
+  private static String providerId(String provider, Map<String, Object> attributes) {
+    if ("github".equals(provider)) {
+      Object id = attributes.get("id");
+      return id != null ? id.toString() : null;
+    }
+    return (String) attributes.get("sub");
+  }
+
+  // 与 updateExistingUser 写入的字段一致
+  private static boolean changed(User user, String provider, String providerId, String name) {
+    return !Objects.equals(user.getProvider(), provider)
+        || !Objects.equals(user.getProviderId(), providerId)
+        || !Objects.equals(user.getName(), name);
+  }
+
+  // 缓存里放一份副本，调用方之后修改返回的对象不会影响缓存
+  private User cache(User user) {
+    User copy = new User(user);
+    if (user.getEmail() != null) {
+      userCache.put(emailKey(user.getEmail()), copy);
+      userCache.put(loginKey(user.getProvider(), user.getProviderId(), user.getEmail()), copy);
     }
+    if (user.getUsername() != null) {
+      userCache.put(usernameKey(user.getUsername()), copy);
+    }
+    return user;
+  }
+
+  private void evict(User user) {
+    userCache.evict(emailKey(user.getEmail()));
+    userCache.evict(loginKey(user.getProvider(), user.getProviderId(), user.getEmail()));
+    userCache.evict(usernameKey(user.getUsername()));
+  }
+
+  private static String emailKey(String email) {
+    return "email:" + email;
+  }
+
+  private static String usernameKey(String username) {
+    return "username:" + username;
+  }
+
+  private static String loginKey(String provider, String providerId, String email) {
+    return "login:" + provider + ":" + providerId + ":" + email;
   }
 
   // 修改这个方法签名
@@ -128,14 +210,11 @@ public class UserServiceImpl extends DefaultOAuth2UserService implements UserSer
 
     user.setProvider(provider);
 
-    // 为 OAuth2 用户设置一个随机密码
-    String randomPassword = UUID.randomUUID().toString();
-    user.setPassword(passwordEncoder.encode(randomPassword));
+    // 仅第三方登录的账号没有可用密码，不再为随机密码做一次 BCrypt（password 列允许为空）
+    user.setPassword(null);
 
     // 设置角色
-    Set<Role> roles = new HashSet<>();
-    roles.add(Role.ROLE_USER);
-    user.setRoles(roles);
+    user.addRole(Role.ROLE_USER);
 
     return userRepository.save(user);
   }
@@ -0,0 +1,92 @@
+package com.example.springDemo.service.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: one record per call, quoted fields may contain commas,
+ * doubled quotes and line breaks. Only the current record is held in memory, and a single
+ * field is capped at {@link #MAX_FIELD_LENGTH} characters so an unterminated quote cannot
+ * swallow the whole upload: characters beyond the cap are dropped, the rest of the record is
+ * still consumed, and {@link #isTruncated()} tells the caller to reject that record.
+ */
+class CsvRecordReader {
+
+  static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+  private final Reader reader;
+  private long line = 1;
+  private long recordLine;
+  private boolean truncated;
+
+  CsvRecordReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  // 返回 null 表示输入结束
+  List<String> readRecord() throws IOException {
+    int c = reader.read();
+    if (c == -1) {
+      return null;
+    }
+    recordLine = line;
+    truncated = false;
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean inQuotes = false;
+    while (true) {
+      if (inQuotes) {
+        if (c == -1) {
+          // 引号没闭合就到了结尾，按闭合处理，列数校验会拒绝这一行
+          inQuotes = false;
+          continue;
+        }
+        if (c == '"') {
+          int next = reader.read();
+          if (next != '"') {
+            inQuotes = false;
+            c = next;
+            continue;
+          }
+        } else if (c == '\n') {
+          line++;
+        }
+        append(field, c);
+      } else if (c == '"' && field.length() == 0) {
+        inQuotes = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == -1) {
+        fields.add(field.toString());
+        if (c == '\n') {
+          line++;
+        }
+        return fields;
+      } else if (c != '\r') {
+        append(field, c);
+      }
+      c = reader.read();
+    }
+  }
+
+  // 当前记录起始行号（从 1 开始，含表头）
+  long getRecordLine() {
+    return recordLine;
+  }
+
+  // 当前记录是否有字段超过 MAX_FIELD_LENGTH 被截断（这条记录应当被拒绝）
+  boolean isTruncated() {
+    return truncated;
+  }
+
+  private void append(StringBuilder field, int c) {
+    if (field.length() >= MAX_FIELD_LENGTH) {
+      truncated = true;
+      return;
+    }
+    field.append((char) c);
+  }
+}
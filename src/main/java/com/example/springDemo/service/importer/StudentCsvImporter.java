@@ -0,0 +1,217 @@
+package com.example.springDemo.service.importer;
+
+import com.example.springDemo.dto.ImportResult;
+import com.example.springDemo.dto.RejectedRow;
+import com.example.springDemo.model.Student;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Streams a student CSV into a datasource chunk by chunk. The header row names the
+ * columns ({@code name} is required; {@code age}, {@code ssn}, {@code birth},
+ * {@code credit_card_number} are optional; anything else, e.g. the {@code id} and
+ * {@code version} of an export file, is ignored). Invalid rows are skipped and reported.
+ * Valid rows are buffered up to {@code chunkSize} and handed to the datasource's chunk
+ * writer, which commits each chunk on its own. When the database rejects a chunk because of a
+ * row (a constraint violation), the chunk is retried in halves until the offending rows are
+ * isolated, so only they are reported. Any other database failure rejects the whole chunk.
+ *
+ * <p>Parsing is pull-based: the next chunk is only read once the previous one has been
+ * committed, so a slow database throttles the upload instead of filling the heap.
+ */
+@Component
+public class StudentCsvImporter {
+
+  private static final Logger logger = LoggerFactory.getLogger(StudentCsvImporter.class);
+
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+  // 两边表结构里较短的那个（MySQL：name VARCHAR(100)、ssn VARCHAR(20)、credit_card_number VARCHAR(30)），
+  // 超长的行在这里拒绝，不拖累整个 chunk
+  private static final int MAX_NAME_LENGTH = 100;
+  private static final int MAX_SSN_LENGTH = 20;
+  private static final int MAX_CREDIT_CARD_NUMBER_LENGTH = 30;
+  private static final int MAX_AGE = 150;
+
+  private final int chunkSize;
+  private final int maxReportedRejections;
+
+  public StudentCsvImporter(@Value("${app.students.import.chunk-size:5000}") int chunkSize,
+                            @Value("${app.students.import.max-reported-rejections:1000}") int maxReportedRejections) {
+    this.chunkSize = chunkSize;
+    this.maxReportedRejections = maxReportedRejections;
+  }
+
+  /**
+   * @param chunkWriter inserts one chunk in its own transaction and returns the row count
+   * @throws IllegalArgumentException if the header is missing or has no {@code name} column
+   */
+  public ImportResult importCsv(Reader source, ToIntFunction<List<Student>> chunkWriter) throws IOException {
+    long start = System.nanoTime();
+    CsvRecordReader csv = new CsvRecordReader(new BufferedReader(source, READ_BUFFER_SIZE));
+    List<String> header = csv.readRecord();
+    if (header == null) {
+      throw new IllegalArgumentException("CSV is empty, expected a header row");
+    }
+    if (csv.isTruncated()) {
+      throw new IllegalArgumentException("CSV header has a field longer than " + CsvRecordReader.MAX_FIELD_LENGTH
+          + " characters");
+    }
+    Map<String, Integer> columns = columnsOf(header);
+
+    ImportResult result = new ImportResult();
+    List<Student> chunk = new ArrayList<>(chunkSize);
+    long[] chunkLines = new long[chunkSize];
+    for (List<String> record = csv.readRecord(); record != null; record = csv.readRecord()) {
+      if (record.size() == 1 && record.get(0).isBlank()) {
+        continue;
+      }
+      if (csv.isTruncated()) {
+        reject(result, csv.getRecordLine(), "Field longer than " + CsvRecordReader.MAX_FIELD_LENGTH + " characters");
+        continue;
+      }
+      try {
+        Student student = toStudent(record, header.size(), columns);
+        chunkLines[chunk.size()] = csv.getRecordLine();
+        chunk.add(student);
+      } catch (IllegalArgumentException e) {
+        reject(result, csv.getRecordLine(), e.getMessage());
+        continue;
+      }
+      if (chunk.size() == chunkSize) {
+        writeChunk(chunk, chunkLines, chunkWriter, result);
+      }
+    }
+    writeChunk(chunk, chunkLines, chunkWriter, result);
+
+    result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+    logger.info("Imported {} students ({} rejected) in {} chunks, {} ms ({} rows/s)",
+        result.getImported(), result.getRejected(), result.getChunks(), result.getElapsedMillis(),
+        result.getRowsPerSecond());
+    return result;
+  }
+
+  private void writeChunk(List<Student> chunk, long[] chunkLines, ToIntFunction<List<Student>> chunkWriter,
+                          ImportResult result) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    write(chunk, chunkLines, 0, chunkWriter, result);
+    result.setChunks(result.getChunks() + 1);
+    chunk.clear();
+  }
+
+  // rows 对应 chunkLines[offset ..]；每次调用 chunkWriter 都是独立事务，失败只回滚这一段
+  private void write(List<Student> rows, long[] chunkLines, int offset, ToIntFunction<List<Student>> chunkWriter,
+                     ImportResult result) {
+    try {
+      result.setImported(result.getImported() + chunkWriter.applyAsInt(rows));
+    } catch (DataIntegrityViolationException e) {
+      if (rows.size() == 1) {
+        reject(result, chunkLines[offset], e.getMostSpecificCause().getMessage());
+        return;
+      }
+      // 某一行违反约束：对半拆开重试，最终只拒绝出错的行，每个坏行多花 O(log chunkSize) 次写入
+      logger.debug("Import rows at lines {}..{} rolled back, retrying in halves",
+          chunkLines[offset], chunkLines[offset + rows.size() - 1]);
+      int half = rows.size() / 2;
+      write(rows.subList(0, half), chunkLines, offset, chunkWriter, result);
+      write(rows.subList(half, rows.size()), chunkLines, offset + half, chunkWriter, result);
+    } catch (DataAccessException e) {
+      // 连接、超时等与具体行无关的失败：拆开重试没有意义，这一段全部记为拒绝，继续下一个 chunk
+      String reason = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+      logger.warn("Import chunk of {} rows starting at line {} failed", rows.size(), chunkLines[offset], e);
+      for (int i = 0; i < rows.size(); i++) {
+        reject(result, chunkLines[offset + i], reason);
+      }
+    }
+  }
+
+  private void reject(ImportResult result, long line, String reason) {
+    result.setRejected(result.getRejected() + 1);
+    if (result.getRejectedRows().size() < maxReportedRejections) {
+      result.getRejectedRows().add(new RejectedRow(line, reason));
+    }
+  }
+
+  private static Map<String, Integer> columnsOf(List<String> header) {
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    if (!columns.containsKey("name")) {
+      throw new IllegalArgumentException("CSV header must contain a 'name' column, got " + header);
+    }
+    return columns;
+  }
+
+  private static Student toStudent(List<String> record, int columnCount, Map<String, Integer> columns) {
+    if (record.size() != columnCount) {
+      throw new IllegalArgumentException("Expected " + columnCount + " columns, got " + record.size());
+    }
+    String name = bounded(record, columns, "name", MAX_NAME_LENGTH);
+    if (name == null) {
+      throw new IllegalArgumentException("name is required");
+    }
+    Student student = new Student();
+    student.setName(name);
+    String age = value(record, columns, "age");
+    if (age != null) {
+      int parsed;
+      try {
+        parsed = Integer.parseInt(age);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("age is not a number: " + age);
+      }
+      if (parsed < 0 || parsed > MAX_AGE) {
+        throw new IllegalArgumentException("age out of range: " + age);
+      }
+      student.setAge(parsed);
+    }
+    student.setSsn(bounded(record, columns, "ssn", MAX_SSN_LENGTH));
+    String birth = value(record, columns, "birth");
+    if (birth != null) {
+      try {
+        student.setBirth(LocalDate.parse(birth));
+      } catch (DateTimeParseException e) {
+        throw new IllegalArgumentException("birth is not an ISO date (yyyy-MM-dd): " + birth);
+      }
+    }
+    student.setCreditCardNumber(bounded(record, columns, "credit_card_number", MAX_CREDIT_CARD_NUMBER_LENGTH));
+    return student;
+  }
+
+  // 超长时只报列名和上限，不回显内容（ssn、卡号属于敏感信息）
+  private static String bounded(List<String> record, Map<String, Integer> columns, String column, int maxLength) {
+    String value = value(record, columns, column);
+    if (value != null && value.length() > maxLength) {
+      throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+    }
+    return value;
+  }
+
+  // 空字符串按 null 处理
+  private static String value(List<String> record, Map<String, Integer> columns, String column) {
+    Integer index = columns.get(column);
+    if (index == null) {
+      return null;
+    }
+    String value = record.get(index).trim();
+    return value.isEmpty() ? null : value;
+  }
+}
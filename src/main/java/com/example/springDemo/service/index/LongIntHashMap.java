@@ -0,0 +1,47 @@
+package com.example.springDemo.service.index;
+
+/**
+ * Open-addressing map from {@code long} keys to non-negative {@code int} values, with linear
+ * probing and no boxing. There is no removal: {@link StudentAgeIndex} rebuilds the map whenever
+ * it rewrites its arrays, and stale entries are recognised by the caller. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+  private final long[] keys;
+  // 存 value + 1，0 表示空槽
+  private final int[] values;
+  private final int mask;
+
+  LongIntHashMap(int expectedSize) {
+    // 负载因子不超过 0.5
+    int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    this.mask = capacity - 1;
+  }
+
+  void put(long key, int value) {
+    int slot = slot(key);
+    while (values[slot] != 0 && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value + 1;
+  }
+
+  int get(long key, int missing) {
+    int slot = slot(key);
+    while (values[slot] != 0) {
+      if (keys[slot] == key) {
+        return values[slot] - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return missing;
+  }
+
+  private int slot(long key) {
+    int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+}
@@ -0,0 +1,378 @@
+package com.example.springDemo.service.index;
+
+import com.example.springDemo.dto.StudentDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory secondary index over student age. Entries live in parallel arrays sorted by
+ * (age, id): {@code int[]} ages and {@code long[]} ids, no boxing, plus the names, so range
+ * queries are two binary searches and can be answered as {@link StudentDTO} without touching
+ * the database. Reads share a read lock.
+ *
+ * <p>Single-row writes do not copy the main arrays. A removal sets a bit in a tombstone bitmap
+ * (the slot is found through a primitive id-to-slot hash map). An insert goes into a small
+ * sorted delta of about sqrt(n) rows, and range reads merge the two runs. When the delta and
+ * tombstones fill up, they are merged into new main arrays in one O(n) pass, so a write costs
+ * O(sqrt(n)) amortised.
+ *
+ * <p>{@link #load} runs the (slow) database query without holding any lock, builds the new
+ * arrays on the side and swaps them in. Writes made while the query runs are recorded and
+ * replayed onto the new arrays before the swap, so a reload never drops a concurrent upsert or
+ * remove.
+ */
+public class StudentAgeIndex {
+
+  private static final int MIN_DELTA_CAPACITY = 64;
+
+  private static final Comparator<StudentDTO> BY_AGE_AND_ID =
+      Comparator.comparingInt(StudentDTO::getAge).thenComparingLong(StudentDTO::getId);
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // 同一时间只有一个 load，日志才能对应到唯一的一次重建
+  private final ReentrantLock loadLock = new ReentrantLock();
+
+  // 以下字段都由 lock 保护
+  private Contents contents;
+  private List<Write> pendingWrites;
+
+  // 尚未加载时返回 false，调用方应回退到数据库查询
+  public boolean isReady() {
+    lock.readLock().lock();
+    try {
+      return contents != null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the index contents. Rows with a null age are skipped, and rows not already
+   * ordered by age and id are sorted. The supplier runs without any lock held, so reads and
+   * writes carry on while the table is read.
+   */
+  public void load(Supplier<List<StudentDTO>> rows) {
+    loadLock.lock();
+    try {
+      lock.writeLock().lock();
+      try {
+        pendingWrites = new ArrayList<>();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      Contents loaded;
+      try {
+        loaded = Contents.of(sorted(rows.get()));
+      } catch (RuntimeException e) {
+        lock.writeLock().lock();
+        try {
+          pendingWrites = null;
+        } finally {
+          lock.writeLock().unlock();
+        }
+        throw e;
+      }
+      lock.writeLock().lock();
+      try {
+        // 查询期间的写入可能没有被查询看到，按顺序重放一遍
+        for (Write write : pendingWrites) {
+          write.applyTo(loaded);
+        }
+        pendingWrites = null;
+        contents = loaded;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      loadLock.unlock();
+    }
+  }
+
+  public void upsert(long id, String name, Integer age) {
+    write(new Write(id, name, age, false));
+  }
+
+  public void remove(long id) {
+    write(new Write(id, null, null, true));
+  }
+
+  // 批量插入后一次加锁写入整批
+  public void upsertAll(List<StudentDTO> rows) {
+    lock.writeLock().lock();
+    try {
+      for (StudentDTO row : rows) {
+        apply(new Write(row.getId(), row.getName(), row.getAge(), false));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 闭区间 [minAge, maxAge]
+  public long[] idsInAgeRange(int minAge, int maxAge) {
+    lock.readLock().lock();
+    try {
+      long[] ids = new long[contents.maxInRange(minAge, maxAge)];
+      int[] count = new int[1];
+      contents.forEachInRange(minAge, maxAge, (id, name, age) -> ids[count[0]++] = id);
+      return count[0] == ids.length ? ids : Arrays.copyOf(ids, count[0]);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public List<StudentDTO> summariesInAgeRange(int minAge, int maxAge) {
+    lock.readLock().lock();
+    try {
+      List<StudentDTO> result = new ArrayList<>(contents.maxInRange(minAge, maxAge));
+      contents.forEachInRange(minAge, maxAge, (id, name, age) -> result.add(new StudentDTO(id, name, age)));
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return contents != null ? contents.size() : 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void write(Write write) {
+    lock.writeLock().lock();
+    try {
+      apply(write);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 调用方持有写锁
+  private void apply(Write write) {
+    if (pendingWrites != null) {
+      pendingWrites.add(write);
+    }
+    if (contents != null) {
+      write.applyTo(contents);
+    }
+  }
+
+  private static List<StudentDTO> sorted(List<StudentDTO> rows) {
+    List<StudentDTO> withAge = new ArrayList<>(rows.size());
+    boolean ordered = true;
+    for (StudentDTO row : rows) {
+      if (row.getAge() == null) {
+        continue;
+      }
+      if (ordered && !withAge.isEmpty() && BY_AGE_AND_ID.compare(withAge.get(withAge.size() - 1), row) > 0) {
+        ordered = false;
+      }
+      withAge.add(row);
+    }
+    if (!ordered) {
+      withAge.sort(BY_AGE_AND_ID);
+    }
+    return withAge;
+  }
+
+  private record Write(long id, String name, Integer age, boolean remove) {
+    void applyTo(Contents target) {
+      target.remove(id);
+      if (!remove && age != null) {
+        target.insert(id, name, age);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface RowConsumer {
+    void accept(long id, String name, int age);
+  }
+
+  /**
+   * Main arrays with their tombstones, plus the sorted delta. An id is in at most one of the
+   * two: every write removes it first.
+   */
+  private static final class Contents {
+    private int[] ages;
+    private long[] ids;
+    private String[] names;
+    private long[] removed;
+    private int removedCount;
+    private LongIntHashMap slotById;
+
+    private int[] deltaAges;
+    private long[] deltaIds;
+    private String[] deltaNames;
+    private int deltaSize;
+
+    static Contents of(List<StudentDTO> sortedRows) {
+      int size = sortedRows.size();
+      int[] ages = new int[size];
+      long[] ids = new long[size];
+      String[] names = new String[size];
+      for (int i = 0; i < size; i++) {
+        StudentDTO row = sortedRows.get(i);
+        ages[i] = row.getAge();
+        ids[i] = row.getId();
+        names[i] = row.getName();
+      }
+      Contents contents = new Contents();
+      contents.reset(ages, ids, names);
+      return contents;
+    }
+
+    int size() {
+      return ids.length - removedCount + deltaSize;
+    }
+
+    void remove(long id) {
+      int slot = slotById.get(id, -1);
+      if (slot >= 0 && !isRemoved(slot)) {
+        removed[slot >>> 6] |= 1L << slot;
+        removedCount++;
+        compactIfFull();
+        return;
+      }
+      for (int i = 0; i < deltaSize; i++) {
+        if (deltaIds[i] == id) {
+          int tail = deltaSize - i - 1;
+          System.arraycopy(deltaAges, i + 1, deltaAges, i, tail);
+          System.arraycopy(deltaIds, i + 1, deltaIds, i, tail);
+          System.arraycopy(deltaNames, i + 1, deltaNames, i, tail);
+          deltaNames[--deltaSize] = null;
+          return;
+        }
+      }
+    }
+
+    void insert(long id, String name, int age) {
+      compactIfFull();
+      int at = lowerBound(deltaAges, deltaIds, deltaSize, age, id);
+      int tail = deltaSize - at;
+      System.arraycopy(deltaAges, at, deltaAges, at + 1, tail);
+      System.arraycopy(deltaIds, at, deltaIds, at + 1, tail);
+      System.arraycopy(deltaNames, at, deltaNames, at + 1, tail);
+      deltaAges[at] = age;
+      deltaIds[at] = id;
+      deltaNames[at] = name;
+      deltaSize++;
+    }
+
+    // 区间内最多有多少行（主数组里的墓碑也算上），用于预分配结果
+    int maxInRange(int minAge, int maxAge) {
+      if (minAge > maxAge) {
+        return 0;
+      }
+      return upperBound(ages, ids.length, maxAge) - lowerBound(ages, ids, ids.length, minAge, Long.MIN_VALUE)
+          + upperBound(deltaAges, deltaSize, maxAge) - lowerBound(deltaAges, deltaIds, deltaSize, minAge, Long.MIN_VALUE);
+    }
+
+    // 主数组和增量各自二分出区间，再按 (age, id) 归并
+    void forEachInRange(int minAge, int maxAge, RowConsumer consumer) {
+      if (minAge > maxAge) {
+        return;
+      }
+      int i = lowerBound(ages, ids, ids.length, minAge, Long.MIN_VALUE);
+      int end = upperBound(ages, ids.length, maxAge);
+      int j = lowerBound(deltaAges, deltaIds, deltaSize, minAge, Long.MIN_VALUE);
+      int deltaEnd = upperBound(deltaAges, deltaSize, maxAge);
+      while (i < end || j < deltaEnd) {
+        if (i < end && isRemoved(i)) {
+          i++;
+        } else if (j >= deltaEnd
+            || (i < end && compare(ages[i], ids[i], deltaAges[j], deltaIds[j]) < 0)) {
+          consumer.accept(ids[i], names[i], ages[i]);
+          i++;
+        } else {
+          consumer.accept(deltaIds[j], deltaNames[j], deltaAges[j]);
+          j++;
+        }
+      }
+    }
+
+    private boolean isRemoved(int slot) {
+      return (removed[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    // 增量或墓碑达到 sqrt(n) 时合并成新的主数组
+    private void compactIfFull() {
+      if (deltaSize + removedCount < deltaAges.length) {
+        return;
+      }
+      int size = size();
+      int[] mergedAges = new int[size];
+      long[] mergedIds = new long[size];
+      String[] mergedNames = new String[size];
+      int[] count = new int[1];
+      forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, (id, name, age) -> {
+        mergedAges[count[0]] = age;
+        mergedIds[count[0]] = id;
+        mergedNames[count[0]++] = name;
+      });
+      reset(mergedAges, mergedIds, mergedNames);
+    }
+
+    private void reset(int[] ages, long[] ids, String[] names) {
+      this.ages = ages;
+      this.ids = ids;
+      this.names = names;
+      this.removed = new long[(ids.length + 63) >>> 6];
+      this.removedCount = 0;
+      this.slotById = new LongIntHashMap(ids.length);
+      for (int i = 0; i < ids.length; i++) {
+        slotById.put(ids[i], i);
+      }
+      int capacity = Math.max(MIN_DELTA_CAPACITY, (int) Math.sqrt(ids.length));
+      this.deltaAges = new int[capacity];
+      this.deltaIds = new long[capacity];
+      this.deltaNames = new String[capacity];
+      this.deltaSize = 0;
+    }
+
+    private static int compare(int age, long id, int otherAge, long otherId) {
+      int byAge = Integer.compare(age, otherAge);
+      return byAge != 0 ? byAge : Long.compare(id, otherId);
+    }
+
+    // 第一个 (age, id) >= (age, id) 的位置
+    private static int lowerBound(int[] ages, long[] ids, int size, int age, long id) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (compare(ages[mid], ids[mid], age, id) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    // 第一个 age > maxAge 的位置
+    private static int upperBound(int[] ages, int size, int maxAge) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (ages[mid] <= maxAge) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,377 @@
+package com.example.springDemo.service.index;
+
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.dto.StudentNameMatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory trigram index over student names, for fuzzy and prefix search that never
+ * touches the database. Trigrams follow pg_trgm: the lower-cased name is padded with two
+ * leading blanks and one trailing blank. Similarity is shared / (|query| + |name| - shared),
+ * and names that start with the query get +1. Each trigram maps to a sorted
+ * {@code long[]} of ids that is replaced on write, so searches do not take locks.
+ *
+ * <p>{@link #load} reads the table without holding any lock and builds new maps on the side.
+ * It then publishes them with a single volatile write, so a search sees either the old index or
+ * the new one, never a half-built one. Writes made while the table is read are journaled and
+ * replayed onto the new maps before they are published. Bulk inserts go through
+ * {@link #upsertAll}, which merges each affected posting list once per batch.
+ */
+public class StudentNameIndex {
+
+  private static final double MIN_SIMILARITY = 0.3;
+
+  // 只在切换时整体替换；两个 map 本身只由 writeLock 下的增量写入修改
+  private volatile Contents contents;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  // 同一时间只有一个 load，日志才能对应到唯一的一次重建
+  private final ReentrantLock loadLock = new ReentrantLock();
+  // 由 writeLock 保护；非 null 表示正在 load
+  private List<Write> pendingWrites;
+
+  public boolean isReady() {
+    return contents != null;
+  }
+
+  /**
+   * Replaces the index contents. The supplier runs without any lock held, so searches and
+   * writes carry on while the table is read.
+   */
+  public void load(Supplier<List<StudentDTO>> rows) {
+    loadLock.lock();
+    try {
+      writeLock.lock();
+      try {
+        pendingWrites = new ArrayList<>();
+      } finally {
+        writeLock.unlock();
+      }
+      Contents loaded;
+      try {
+        loaded = build(rows.get());
+      } catch (RuntimeException e) {
+        writeLock.lock();
+        try {
+          pendingWrites = null;
+        } finally {
+          writeLock.unlock();
+        }
+        throw e;
+      }
+      writeLock.lock();
+      try {
+        replay(loaded, pendingWrites);
+        pendingWrites = null;
+        contents = loaded;
+      } finally {
+        writeLock.unlock();
+      }
+    } finally {
+      loadLock.unlock();
+    }
+  }
+
+  public void upsert(long id, String name) {
+    upsertAll(List.of(new StudentDTO(id, name, null)));
+  }
+
+  /**
+   * Adds or replaces a batch of rows (id and name). Posting lists are merged once per trigram
+   * for the whole batch instead of once per row.
+   */
+  public void upsertAll(List<StudentDTO> rows) {
+    writeLock.lock();
+    try {
+      if (pendingWrites != null) {
+        for (StudentDTO row : rows) {
+          pendingWrites.add(new Write(row.getId(), row.getName(), false));
+        }
+      }
+      Contents current = contents;
+      if (current != null) {
+        current.upsertAll(rows);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void remove(long id) {
+    writeLock.lock();
+    try {
+      if (pendingWrites != null) {
+        pendingWrites.add(new Write(id, null, true));
+      }
+      Contents current = contents;
+      if (current != null) {
+        current.remove(id);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public List<StudentNameMatch> search(String query, int limit) {
+    Contents current = contents;
+    String normalized = normalize(query);
+    if (current == null || normalized.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    Set<String> queryTrigrams = trigrams(normalized);
+    List<long[]> lists = new ArrayList<>(queryTrigrams.size());
+    for (String trigram : queryTrigrams) {
+      long[] ids = current.postings.get(trigram);
+      if (ids != null) {
+        lists.add(ids);
+      }
+    }
+
+    // 多路归并已排序的倒排表，直接数出每个 id 与查询共享的 trigram 个数，不需要额外的计数 Map
+    PriorityQueue<StudentNameMatch> top = new PriorityQueue<>(Comparator.comparingDouble(StudentNameMatch::getScore));
+    int[] cursors = new int[lists.size()];
+    while (true) {
+      long next = Long.MAX_VALUE;
+      for (int i = 0; i < lists.size(); i++) {
+        if (cursors[i] < lists.get(i).length) {
+          next = Math.min(next, lists.get(i)[cursors[i]]);
+        }
+      }
+      if (next == Long.MAX_VALUE) {
+        break;
+      }
+      int shared = 0;
+      for (int i = 0; i < lists.size(); i++) {
+        if (cursors[i] < lists.get(i).length && lists.get(i)[cursors[i]] == next) {
+          shared++;
+          cursors[i]++;
+        }
+      }
+      offer(current, top, limit, next, shared, normalized, queryTrigrams.size());
+    }
+
+    List<StudentNameMatch> result = new ArrayList<>(top);
+    result.sort(Comparator.comparingDouble(StudentNameMatch::getScore).reversed()
+        .thenComparing(StudentNameMatch::getId));
+    return result;
+  }
+
+  public int size() {
+    Contents current = contents;
+    return current != null ? current.entries.size() : 0;
+  }
+
+  /**
+   * Rough heap usage of the index: posting arrays, trigram keys, per-name entries and
+   * the hash map nodes that hold them. Intended for monitoring, not exact accounting.
+   */
+  public long estimatedBytes() {
+    Contents current = contents;
+    if (current == null) {
+      return 0;
+    }
+    long bytes = 0;
+    for (Map.Entry<String, long[]> posting : current.postings.entrySet()) {
+      bytes += 16 + 8L * posting.getValue().length; // long[]
+      bytes += 48;                                  // trigram String
+      bytes += 32;                                  // map node
+    }
+    for (Entry entry : current.entries.values()) {
+      bytes += 2 * (40 + 2L * entry.name().length()); // original + normalized String
+      bytes += 24 + 16 + 32;                        // Entry, Long key, map node
+    }
+    return bytes;
+  }
+
+  private static void offer(Contents contents, PriorityQueue<StudentNameMatch> top, int limit, long id,
+                            int shared, String normalizedQuery, int queryTrigramCount) {
+    // 相似度上界是 shared / |query|，达不到阈值也不可能是前缀匹配，直接跳过，不去查 entries
+    if ((double) shared / queryTrigramCount < MIN_SIMILARITY) {
+      return;
+    }
+    Entry entry = contents.entries.get(id);
+    if (entry == null) {
+      return;
+    }
+    double score = (double) shared / (queryTrigramCount + entry.trigramCount() - shared);
+    if (entry.normalized().startsWith(normalizedQuery)) {
+      score += 1;
+    } else if (score < MIN_SIMILARITY) {
+      return;
+    }
+    if (top.size() < limit) {
+      top.add(new StudentNameMatch(id, entry.name(), score));
+    } else if (score > top.peek().getScore()) {
+      top.poll();
+      top.add(new StudentNameMatch(id, entry.name(), score));
+    }
+  }
+
+  private static Contents build(List<StudentDTO> rows) {
+    Contents built = new Contents();
+    Map<String, LongBuffer> buffers = new HashMap<>();
+    for (StudentDTO row : rows) {
+      if (row.getName() == null) {
+        continue;
+      }
+      Entry entry = Entry.of(row.getName());
+      built.entries.put(row.getId(), entry);
+      for (String trigram : trigrams(entry.normalized())) {
+        buffers.computeIfAbsent(trigram, key -> new LongBuffer()).add(row.getId());
+      }
+    }
+    buffers.forEach((trigram, buffer) -> built.postings.put(trigram, buffer.toSortedArray()));
+    return built;
+  }
+
+  // 不同 id 的写入互不影响，每个 id 只需要重放最后一次写入；新增的行合并成一批
+  private static void replay(Contents target, List<Write> writes) {
+    Map<Long, Write> lastWrites = new LinkedHashMap<>();
+    for (Write write : writes) {
+      lastWrites.put(write.id(), write);
+    }
+    List<StudentDTO> upserts = new ArrayList<>();
+    for (Write write : lastWrites.values()) {
+      if (write.remove()) {
+        target.remove(write.id());
+      } else {
+        upserts.add(new StudentDTO(write.id(), write.name(), null));
+      }
+    }
+    target.upsertAll(upserts);
+  }
+
+  static Set<String> trigrams(String normalized) {
+    String padded = "  " + normalized + " ";
+    Set<String> trigrams = new LinkedHashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      trigrams.add(padded.substring(i, i + 3));
+    }
+    return trigrams;
+  }
+
+  private static String normalize(String value) {
+    return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static long[] merge(long[] ids, long[] added) {
+    if (ids == null) {
+      return added;
+    }
+    long[] merged = new long[ids.length + added.length];
+    int i = 0;
+    int j = 0;
+    int size = 0;
+    while (i < ids.length || j < added.length) {
+      long value;
+      if (j == added.length || (i < ids.length && ids[i] < added[j])) {
+        value = ids[i++];
+      } else if (i == ids.length || added[j] < ids[i]) {
+        value = added[j++];
+      } else {
+        value = ids[i++];
+        j++;
+      }
+      merged[size++] = value;
+    }
+    return size == merged.length ? merged : Arrays.copyOf(merged, size);
+  }
+
+  // 返回 null 时 computeIfPresent 会删除这个 trigram
+  private static long[] delete(long[] ids, long id) {
+    int at = Arrays.binarySearch(ids, id);
+    if (at < 0) {
+      return ids;
+    }
+    if (ids.length == 1) {
+      return null;
+    }
+    long[] copy = new long[ids.length - 1];
+    System.arraycopy(ids, 0, copy, 0, at);
+    System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+    return copy;
+  }
+
+  private record Write(long id, String name, boolean remove) {
+  }
+
+  /**
+   * One generation of the index. Searches read it without locking. Writes (under the write
+   * lock) replace whole posting arrays, so a search always sees a consistent array per trigram.
+   */
+  private static final class Contents {
+    private final Map<String, long[]> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    void upsertAll(List<StudentDTO> rows) {
+      // 同一批里重复的 id 以最后一行为准
+      Map<Long, StudentDTO> byId = new LinkedHashMap<>();
+      for (StudentDTO row : rows) {
+        byId.put(row.getId(), row);
+      }
+      Map<String, LongBuffer> added = new HashMap<>();
+      for (StudentDTO row : byId.values()) {
+        remove(row.getId());
+        if (row.getName() == null) {
+          continue;
+        }
+        Entry entry = Entry.of(row.getName());
+        // 先放 entry 再放倒排：搜索在倒排里找到的 id 一定查得到 entry
+        entries.put(row.getId(), entry);
+        for (String trigram : trigrams(entry.normalized())) {
+          added.computeIfAbsent(trigram, key -> new LongBuffer()).add(row.getId());
+        }
+      }
+      added.forEach((trigram, buffer) -> postings.compute(trigram, (key, ids) -> merge(ids, buffer.toSortedArray())));
+    }
+
+    void remove(long id) {
+      Entry entry = entries.get(id);
+      if (entry == null) {
+        return;
+      }
+      for (String trigram : trigrams(entry.normalized())) {
+        postings.computeIfPresent(trigram, (key, ids) -> delete(ids, id));
+      }
+      entries.remove(id);
+    }
+  }
+
+  private record Entry(String name, String normalized, int trigramCount) {
+    static Entry of(String name) {
+      String normalized = normalize(name);
+      return new Entry(name, normalized, trigrams(normalized).size());
+    }
+  }
+
+  private static final class LongBuffer {
+    private long[] values = new long[4];
+    private int size;
+
+    void add(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    long[] toSortedArray() {
+      long[] result = Arrays.copyOf(values, size);
+      Arrays.sort(result);
+      return result;
+    }
+  }
+}
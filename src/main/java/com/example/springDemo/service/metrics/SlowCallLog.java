@@ -0,0 +1,63 @@
+package com.example.springDemo.service.metrics;
+
+import com.example.springDemo.dto.SlowCall;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The most recent calls that exceeded {@code app.students.metrics.slow-threshold}, newest
+ * first. Each call is logged at WARN and kept in a bounded buffer, which is exposed as the
+ * actuator endpoint {@code /actuator/slowcalls} (DELETE clears it).
+ */
+@Component
+@Endpoint(id = "slowcalls")
+@ConditionalOnProperty(name = "app.students.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowCallLog {
+
+  private final Logger logger = LoggerFactory.getLogger(SlowCallLog.class);
+
+  private final int capacity;
+  private final Deque<SlowCall> calls = new ArrayDeque<>();
+
+  public SlowCallLog(@Value("${app.students.metrics.slow-call-capacity:100}") int capacity) {
+    this.capacity = Math.max(1, capacity);
+  }
+
+  public void record(SlowCall call) {
+    logger.warn("Slow {} call {} [{}] took {} ms, {} SQL statements, args={}{}",
+        call.getLayer(), call.getMethod(), call.getDatasource(), String.format("%.1f", call.getElapsedMillis()),
+        call.getSqlStatements(), call.getArguments(),
+        call.getException() != null ? ", threw " + call.getException() : "");
+    synchronized (calls) {
+      if (calls.size() == capacity) {
+        calls.removeLast();
+      }
+      calls.addFirst(call);
+    }
+  }
+
+  @ReadOperation
+  public List<SlowCall> slowCalls() {
+    synchronized (calls) {
+      return new ArrayList<>(calls);
+    }
+  }
+
+  @DeleteOperation
+  public void clear() {
+    synchronized (calls) {
+      calls.clear();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.springDemo.service.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate statistics of both persistence units since startup (or the last DELETE), as the
+ * actuator endpoint {@code /actuator/sqlstats}. Collections sorted by separate-select fetches
+ * come first in {@code collectionFetchesByRole}: a role whose fetch count keeps pace with its
+ * owner's load count is being loaded one select per owner (N+1). Per-request numbers are the
+ * {@code students.request.sql.*} meters (see SqlStatisticsFilter).
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatisticsEndpoint {
+
+  private final Map<String, EntityManagerFactory> persistenceUnits = new LinkedHashMap<>();
+
+  @Autowired
+  public SqlStatisticsEndpoint(@Qualifier("postgresEntityManagerFactory") EntityManagerFactory postgres,
+                               @Qualifier("mysqlEntityManagerFactory") EntityManagerFactory mysql) {
+    persistenceUnits.put("postgres", postgres);
+    persistenceUnits.put("mysql", mysql);
+  }
+
+  @ReadOperation
+  public Map<String, Object> statistics() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    persistenceUnits.forEach((name, emf) -> result.put(name, describe(statistics(emf))));
+    return result;
+  }
+
+  @DeleteOperation
+  public void clear() {
+    persistenceUnits.values().forEach(emf -> statistics(emf).clear());
+  }
+
+  private static Statistics statistics(EntityManagerFactory emf) {
+    return emf.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  private static Map<String, Object> describe(Statistics statistics) {
+    Map<String, Object> unit = new LinkedHashMap<>();
+    unit.put("enabled", statistics.isStatisticsEnabled());
+    unit.put("sessions", statistics.getSessionOpenCount());
+    unit.put("transactions", statistics.getTransactionCount());
+    unit.put("statementsPrepared", statistics.getPrepareStatementCount());
+    unit.put("queries", statistics.getQueryExecutionCount());
+    unit.put("slowestQueryMillis", statistics.getQueryExecutionMaxTime());
+    unit.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+    unit.put("entityLoads", statistics.getEntityLoadCount());
+    unit.put("entityFetches", statistics.getEntityFetchCount());
+    unit.put("collectionLoads", statistics.getCollectionLoadCount());
+    unit.put("collectionFetches", statistics.getCollectionFetchCount());
+
+    Map<String, Long> byRole = new LinkedHashMap<>();
+    Arrays.stream(statistics.getCollectionRoleNames())
+        .sorted(Comparator.comparingLong((String role) -> collection(statistics, role).getFetchCount()).reversed())
+        .forEach(role -> byRole.put(role, collection(statistics, role).getFetchCount()));
+    unit.put("collectionFetchesByRole", byRole);
+    return unit;
+  }
+
+  private static CollectionStatistics collection(Statistics statistics, String role) {
+    return statistics.getCollectionStatistics(role);
+  }
+}
@@ -0,0 +1,118 @@
+package com.example.springDemo.service.password;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a {@link PasswordEncoder}'s {@code encode} and {@code matches} on a small, dedicated
+ * pool of platform threads with a bounded queue. Hashing is pure CPU (BCrypt at cost 10 takes
+ * tens of milliseconds), so a signup or login burst can use at most {@code threads} cores. The
+ * rest of the node keeps serving requests. Callers run on virtual threads and wait for the
+ * result without holding a carrier thread. When the queue is full, the call fails fast with
+ * {@link PasswordHashingRejectedException}. During authentication
+ * {@link OverloadAwareAuthenticationProvider} turns that into a
+ * {@link PasswordHashingUnavailableException}, which the login filters answer with 503 and
+ * {@code Retry-After}. Elsewhere (e.g. signup) the exception itself maps to 503.
+ *
+ * <p>Exposed as the {@code executor.*} meters (name {@code passwordHashing}), the
+ * {@code password.hashing} timer (time on the pool, tagged by operation) and the
+ * {@code password.hashing.rejected} counter.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private final PasswordEncoder delegate;
+  private final int queueCapacity;
+  private final ThreadPoolExecutor pool;
+  private final ExecutorService executor;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.queueCapacity = queueCapacity;
+    AtomicInteger count = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "passwordHashing");
+    this.encodeTimer = Timer.builder("password.hashing")
+        .description("Time spent hashing or verifying a password on the hashing pool")
+        .tag("operation", "encode")
+        .register(meterRegistry);
+    this.matchesTimer = Timer.builder("password.hashing")
+        .description("Time spent hashing or verifying a password on the hashing pool")
+        .tag("operation", "matches")
+        .register(meterRegistry);
+    this.rejected = Counter.builder("password.hashing.rejected")
+        .description("Hash requests rejected because the hashing queue was full")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+  }
+
+  // 只比较哈希前缀和 cost，不需要进线程池
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  public int getQueuedCount() {
+    return pool.getQueue().size();
+  }
+
+  private <T> T submit(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new PasswordHashingRejectedException(queueCapacity);
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.springDemo.service.password;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Remembers recently verified username/password pairs, so that API clients sending the same
+ * HTTP Basic credentials on every request pay the BCrypt verify once per {@code ttl}, not once
+ * per request. The cache holds, per username, an HMAC-SHA256 of the credentials under a random
+ * per-process key (the raw password is never stored). It also holds the password hash and
+ * authorities the user had when verified.
+ *
+ * <p>A hit is only accepted when the user, freshly loaded from the {@link UserDetailsService},
+ * still has the same password hash and authorities and is enabled and unlocked. A password
+ * change, rehash or role change therefore invalidates the entry on the next request. Anything
+ * else falls through to the delegate, normally a DaoAuthenticationProvider.
+ * {@link #invalidate(String)} evicts a user immediately. The cache is bounded and exposed as
+ * the {@code cache.*} meters (name {@code basicAuthCredentials}).
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+  private static final String HMAC = "HmacSHA256";
+
+  private record VerifiedCredentials(byte[] mac, String passwordHash, Set<GrantedAuthority> authorities) {
+  }
+
+  private final AuthenticationProvider delegate;
+  private final UserDetailsService userDetailsService;
+  private final Cache<String, VerifiedCredentials> cache;
+  private final SecretKeySpec key;
+
+  public CachingAuthenticationProvider(AuthenticationProvider delegate, UserDetailsService userDetailsService,
+                                       Duration ttl, long maxSize, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.userDetailsService = userDetailsService;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    byte[] secret = new byte[32];
+    new SecureRandom().nextBytes(secret);
+    this.key = new SecretKeySpec(secret, HMAC);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "basicAuthCredentials");
+  }
+
+  @Override
+  public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    String username = authentication.getName();
+    Object credentials = authentication.getCredentials();
+    if (username == null || credentials == null) {
+      return delegate.authenticate(authentication);
+    }
+    byte[] mac = mac(username, credentials.toString());
+
+    VerifiedCredentials verified = cache.getIfPresent(username);
+    if (verified != null && MessageDigest.isEqual(verified.mac(), mac)) {
+      UserDetails user = currentUser(username);
+      if (user != null && stillValid(user, verified)) {
+        UsernamePasswordAuthenticationToken result =
+            UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        result.setDetails(authentication.getDetails());
+        return result;
+      }
+      cache.invalidate(username);
+    }
+
+    Authentication result = delegate.authenticate(authentication);
+    // 委托里可能刚把哈希升级过，按验证后的用户记录
+    if (result != null && result.isAuthenticated() && result.getPrincipal() instanceof UserDetails user) {
+      cache.put(username, new VerifiedCredentials(mac, user.getPassword(), Set.copyOf(user.getAuthorities())));
+    }
+    return result;
+  }
+
+  @Override
+  public boolean supports(Class<?> authentication) {
+    return delegate.supports(authentication);
+  }
+
+  public void invalidate(String username) {
+    cache.invalidate(username);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private UserDetails currentUser(String username) {
+    try {
+      return userDetailsService.loadUserByUsername(username);
+    } catch (UsernameNotFoundException e) {
+      return null;
+    }
+  }
+
+  private static boolean stillValid(UserDetails user, VerifiedCredentials verified) {
+    Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
+    return user.isEnabled() && user.isAccountNonLocked() && user.isAccountNonExpired()
+        && user.isCredentialsNonExpired()
+        && verified.passwordHash() != null && verified.passwordHash().equals(user.getPassword())
+        && authorities.size() == verified.authorities().size() && verified.authorities().containsAll(authorities);
+  }
+
+  private byte[] mac(String username, String password) {
+    try {
+      Mac hmac = Mac.getInstance(HMAC);
+      hmac.init(key);
+      hmac.update(username.getBytes(StandardCharsets.UTF_8));
+      hmac.update((byte) 0);
+      return hmac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(HMAC + " unavailable", e);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.springDemo.service.password;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Turns a {@link PasswordHashingRejectedException} raised while verifying (or upgrading) a
+ * password into a {@link PasswordHashingUnavailableException}, so a saturated hashing pool
+ * reaches the client as 503 with {@code Retry-After} rather than as an internal error.
+ */
+public class OverloadAwareAuthenticationProvider implements AuthenticationProvider {
+
+  private final AuthenticationProvider delegate;
+
+  public OverloadAwareAuthenticationProvider(AuthenticationProvider delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+    try {
+      return delegate.authenticate(authentication);
+    } catch (PasswordHashingRejectedException e) {
+      throw new PasswordHashingUnavailableException(e);
+    }
+  }
+
+  @Override
+  public boolean supports(Class<?> authentication) {
+    return delegate.supports(authentication);
+  }
+}
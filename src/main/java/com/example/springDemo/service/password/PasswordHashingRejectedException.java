@@ -0,0 +1,13 @@
+package com.example.springDemo.service.password;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 和 BulkheadFullException 一样，过载时快速失败，不生成堆栈
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingRejectedException extends RuntimeException {
+
+  public PasswordHashingRejectedException(int queueCapacity) {
+    super("Password hashing is saturated: " + queueCapacity + " hashes already queued", null, false, false);
+  }
+}
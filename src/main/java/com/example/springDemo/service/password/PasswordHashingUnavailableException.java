@@ -0,0 +1,22 @@
+package com.example.springDemo.service.password;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * A login that could not be checked because the password hashing pool was saturated. As an
+ * {@link AuthenticationServiceException} it stays inside Spring Security's authentication
+ * filters, which hand it to their entry point or failure handler instead of letting it escape
+ * as a 500. See {@link OverloadAwareAuthenticationProvider}.
+ */
+public class PasswordHashingUnavailableException extends AuthenticationServiceException {
+
+  public PasswordHashingUnavailableException(PasswordHashingRejectedException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  // 和 PasswordHashingRejectedException 一样，过载时不生成堆栈
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
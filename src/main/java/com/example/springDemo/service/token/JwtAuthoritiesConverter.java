@@ -0,0 +1,44 @@
+package com.example.springDemo.service.token;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns a verified API token into an authentication. The token carries final authority names
+ * (e.g. {@code ROLE_ADMIN}) in the {@value JwtTokenService#AUTHORITIES_CLAIM} claim. There are
+ * only a handful of distinct role sets, so the authority lists are built once per set and
+ * shared, instead of being parsed and prefixed on every request.
+ */
+public class JwtAuthoritiesConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+  // 角色组合很少；超过上限就不再缓存，防止异常 token 撑大 map
+  private static final int MAX_CACHED_SETS = 256;
+
+  private final Map<List<String>, List<GrantedAuthority>> authoritiesBySet = new ConcurrentHashMap<>();
+
+  @Override
+  public AbstractAuthenticationToken convert(Jwt jwt) {
+    List<String> names = jwt.getClaimAsStringList(JwtTokenService.AUTHORITIES_CLAIM);
+    return new JwtAuthenticationToken(jwt, authorities(names != null ? names : List.of()), jwt.getSubject());
+  }
+
+  private List<GrantedAuthority> authorities(List<String> names) {
+    List<GrantedAuthority> cached = authoritiesBySet.get(names);
+    if (cached != null) {
+      return cached;
+    }
+    List<GrantedAuthority> authorities = List.copyOf(AuthorityUtils.createAuthorityList(names));
+    if (authoritiesBySet.size() < MAX_CACHED_SETS) {
+      authoritiesBySet.putIfAbsent(List.copyOf(names), authorities);
+    }
+    return authorities;
+  }
+}
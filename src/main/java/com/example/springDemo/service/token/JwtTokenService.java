@@ -0,0 +1,58 @@
+package com.example.springDemo.service.token;
+
+import com.example.springDemo.dto.TokenResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Issues short-lived HS256 access tokens for an already authenticated API client, for use as
+ * {@code Authorization: Bearer <token>} on {@code /api/**} in place of HTTP Basic.
+ */
+@Service
+public class JwtTokenService {
+
+  public static final String AUTHORITIES_CLAIM = "authorities";
+
+  private final JwtEncoder jwtEncoder;
+  private final String issuer;
+  private final Duration ttl;
+
+  @Autowired
+  public JwtTokenService(JwtEncoder jwtEncoder,
+                         @Value("${app.security.jwt.issuer:springDemo}") String issuer,
+                         @Value("${app.security.jwt.ttl:15m}") Duration ttl) {
+    this.jwtEncoder = jwtEncoder;
+    this.issuer = issuer;
+    this.ttl = ttl;
+  }
+
+  public TokenResponse issue(Authentication authentication) {
+    Instant now = Instant.now();
+    List<String> authorities = authentication.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .sorted()
+        .toList();
+    JwtClaimsSet claims = JwtClaimsSet.builder()
+        .issuer(issuer)
+        .subject(authentication.getName())
+        .issuedAt(now)
+        .expiresAt(now.plus(ttl))
+        .claim(AUTHORITIES_CLAIM, authorities)
+        .build();
+    String token = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+        .getTokenValue();
+    return new TokenResponse(token, "Bearer", ttl.toSeconds());
+  }
+}
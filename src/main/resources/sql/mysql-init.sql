@@ -6,5 +6,10 @@ CREATE TABLE students (
                           age INTEGER,
                           ssn VARCHAR(20),
                           birth DATE,
-                          credit_card_number VARCHAR(30)
+                          credit_card_number VARCHAR(30),
+                          version BIGINT NOT NULL DEFAULT 0,
+                          -- 搜索用复合索引（见 StudentJdbcSearchRepository）
+                          INDEX idx_students_name_age_birth (name, age, birth),
+                          INDEX idx_students_age_birth (age, birth),
+                          INDEX idx_students_birth (birth)
 );
\ No newline at end of file
@@ -6,28 +6,55 @@ CREATE TABLE IF NOT EXISTS users (
                                      email VARCHAR(255) UNIQUE,
                                      name VARCHAR(255),
                                      provider VARCHAR(255),
-                                     provider_id VARCHAR(255)
+                                     provider_id VARCHAR(255),
+                                     role_mask INTEGER NOT NULL DEFAULT 0 -- 角色位掩码，见 Role
 );
 
--- 创建用户角色表（如果不存在）
+-- 旧表结构没有 role_mask 时补上（hbm2ddl 通常已经加过）
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role_mask INTEGER NOT NULL DEFAULT 0;
+
+-- 检查并创建admin用户（如果不存在），ROLE_ADMIN = 2
+INSERT INTO users (username, password, role_mask)
+SELECT 'admin', '$2a$10$EqKMCKxp0XrUCSJUPY.JeubIW0T3Cb6JQZVlXYJy3ydvB7xWzWjOe', 2
+WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'admin');
+
+-- 迁移：角色原来存在 user_roles 表里（每个角色一行），合并进 users.role_mask 后删除该表
+-- 位值必须与 Role 一致（ROLE_USER = 1, ROLE_ADMIN = 2）
+-- 先建空表保证新库上后面的语句也能执行，整段可以重复执行
 CREATE TABLE IF NOT EXISTS user_roles (
                                           user_id BIGINT NOT NULL,
                                           role VARCHAR(255) NOT NULL,
-                                          PRIMARY KEY (user_id, role),
-                                          FOREIGN KEY (user_id) REFERENCES users (id)
+                                          PRIMARY KEY (user_id, role)
 );
 
--- 检查并创建admin用户（如果不存在）
-INSERT INTO users (username, password)
-SELECT 'admin', '$2a$10$EqKMCKxp0XrUCSJUPY.JeubIW0T3Cb6JQZVlXYJy3ydvB7xWzWjOe'
-WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'admin');
+UPDATE users
+SET role_mask = users.role_mask | migrated.mask
+FROM (
+         SELECT user_id,
+                BIT_OR(CASE role WHEN 'ROLE_USER' THEN 1 WHEN 'ROLE_ADMIN' THEN 2 ELSE 0 END) AS mask
+         FROM user_roles
+         GROUP BY user_id
+     ) migrated
+WHERE users.id = migrated.user_id;
+
+DROP TABLE IF EXISTS user_roles;
+
+-- students 表通常已由 Hibernate (hbm2ddl=update) 创建，这里保证脚本单独执行时也有表（结构与 hbm2ddl 一致）
+CREATE TABLE IF NOT EXISTS students (
+                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                        name VARCHAR(255),
+                                        age INTEGER,
+                                        ssn VARCHAR(255),
+                                        birth DATE,
+                                        credit_card_number VARCHAR(255),
+                                        version BIGINT
+);
+
+-- hbm2ddl 新增的 version 列对已有行为 NULL，补成 0
+UPDATE students SET version = 0 WHERE version IS NULL;
 
--- 给admin用户添加ADMIN角色（如果用户存在）
-INSERT INTO user_roles (user_id, role)
-SELECT id, 'ROLE_ADMIN' FROM users
-WHERE username = 'admin'
-  AND NOT EXISTS (
-    SELECT 1 FROM user_roles
-    WHERE user_id = (SELECT id FROM users WHERE username = 'admin')
-      AND role = 'ROLE_ADMIN'
-);
\ No newline at end of file
+-- 搜索用复合索引（见 StudentJdbcSearchRepository）
+-- name 使用 varchar_pattern_ops，非 C 排序规则下 LIKE 'abc%' 才能走索引
+CREATE INDEX IF NOT EXISTS idx_students_name_age_birth ON students (name varchar_pattern_ops, age, birth);
+CREATE INDEX IF NOT EXISTS idx_students_age_birth ON students (age, birth);
+CREATE INDEX IF NOT EXISTS idx_students_birth ON students (birth);
@@ -0,0 +1,45 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.SpringDemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the application on in-memory H2 databases, in PostgreSQL and MySQL compatibility
+ * modes, in place of the real servers. Hibernate creates the tables (hbm2ddl=update) and
+ * the SQL init scripts are skipped. This lets the JMH suite run on any machine, and the
+ * numbers are comparable between commits but not with production databases.
+ */
+final class EmbeddedDatabase {
+
+  private EmbeddedDatabase() {
+  }
+
+  // 每次调用使用独立的库名，同一 JVM 里多个 trial 互不影响
+  static ConfigurableApplicationContext start(String... overrides) {
+    String suffix = Long.toString(System.nanoTime());
+    // 以命令行参数传入，优先级高于 application.properties；overrides 排在最后，可覆盖前面的取值
+    List<String> args = new ArrayList<>(List.of(
+        "--server.port=0",
+        "--app.database-init.enabled=false",
+        "--spring.datasource.postgres.jdbc-url=jdbc:h2:mem:postgres" + suffix
+            + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "--spring.datasource.postgres.driver-class-name=org.h2.Driver",
+        "--spring.datasource.postgres.username=sa",
+        "--spring.datasource.postgres.password=",
+        "--spring.datasource.postgres.pool-name=postgres",
+        "--spring.datasource.mysql.jdbc-url=jdbc:h2:mem:mysql" + suffix
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "--spring.datasource.mysql.driver-class-name=org.h2.Driver",
+        "--spring.datasource.mysql.username=sa",
+        "--spring.datasource.mysql.password=",
+        "--spring.datasource.mysql.pool-name=mysql",
+        "--logging.level.root=WARN"));
+    args.addAll(Arrays.asList(overrides));
+    return new SpringApplicationBuilder(SpringDemoApplication.class).run(args.toArray(String[]::new));
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.springDemo.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the JMH benchmarks in this package. Opt-in; some of them need the
+ * databases from application.properties:
+ * <pre>
+ *   mvn test -Dtest=JmhBenchmarks -Dbenchmark=true -Dbenchmark.include=StudentAgeIndexBenchmark
+ * </pre>
+ * The {@code benchmark} Maven profile runs the suite on the embedded database and writes
+ * JSON results to {@code -Dbenchmark.result} (default {@code target/jmh-result.json}):
+ * <pre>
+ *   mvn test -Pbenchmark
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JmhBenchmarks {
+
+  @Test
+  void run() throws RunnerException {
+    ChainedOptionsBuilder options = new OptionsBuilder()
+        .include(System.getProperty("benchmark.include", JmhBenchmarks.class.getPackageName() + ".*"));
+    String result = System.getProperty("benchmark.result");
+    if (result != null && !result.isBlank()) {
+      options.result(result).resultFormat(ResultFormatType.JSON);
+    }
+    new Runner(options.build()).run();
+  }
+}
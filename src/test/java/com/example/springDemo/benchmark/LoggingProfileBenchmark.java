@@ -0,0 +1,74 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of an uncached read (one SELECT with bind parameters) from 8 threads, with the
+ * default logging levels (every SQL statement logged) and with the prod profile
+ * (application INFO, SQL logging sampled). Run with
+ * {@code mvn test -Pbenchmark -Dbenchmark.include=LoggingProfile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingProfileBenchmark {
+
+  private static final int ROWS = 1000;
+
+  @Param({"default", "prod"})
+  public String profile;
+
+  private ConfigurableApplicationContext context;
+  private StudentService studentService;
+  private long firstId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = EmbeddedDatabase.start("--spring.profiles.active=" + profile);
+    studentService = context.getBean("postgresStudentService", StudentService.class);
+    List<Student> students = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      Student student = new Student();
+      student.setName("logging-bench-" + i);
+      student.setAge(16 + i % 20);
+      students.add(student);
+    }
+    studentService.saveAll(students);
+    firstId = studentService.getStudentsAfter(0L, 1).get(0).getId();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<Student> getStudentsAfter() {
+    return studentService.getStudentsAfter(firstId + ThreadLocalRandom.current().nextInt(ROWS), 10);
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the students.method timers (PerformanceMetricsAspect) on the cheapest service
+ * path, a cached getStudentById, with the aspect enabled and disabled. The difference between
+ * the two is the per-call cost of the timing advice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsAspectBenchmark {
+
+  @Param({"false", "true"})
+  public boolean metricsEnabled;
+
+  private ConfigurableApplicationContext context;
+  private StudentService studentService;
+  private long id;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = EmbeddedDatabase.start("--app.students.metrics.enabled=" + metricsEnabled);
+    studentService = context.getBean("postgresStudentService", StudentService.class);
+    Student student = new Student();
+    student.setName("metrics-bench");
+    student.setAge(20);
+    id = studentService.saveStudent(student).getId();
+    studentService.getStudentById(id);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<Student> cachedGetStudentById() {
+    return studentService.getStudentById(id);
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.service.password.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and verify throughput of BCrypt per cost factor (every step doubles the work), from
+ * 4 caller threads. {@code direct} hashes on the caller threads. {@code bounded} goes through
+ * {@link BoundedPasswordEncoder} with half the cores, so its throughput is capped at what that
+ * pool can do, and the remaining cores stay free for request handling. Each form login pays one
+ * {@code matches}, and each registration pays one {@code encode}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+  private static final String PASSWORD = "correct horse battery staple";
+
+  @Param({"8", "10", "12"})
+  public int strength;
+
+  @Param({"direct", "bounded"})
+  public String executor;
+
+  private PasswordEncoder encoder;
+  private String hash;
+
+  @Setup
+  public void setUp() {
+    BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+    encoder = "bounded".equals(executor)
+        ? new BoundedPasswordEncoder(bcrypt, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+            1024, new SimpleMeterRegistry())
+        : bcrypt;
+    hash = encoder.encode(PASSWORD);
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (encoder instanceof BoundedPasswordEncoder bounded) {
+      bounded.destroy();
+    }
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return encoder.matches(PASSWORD, hash);
+  }
+}
@@ -0,0 +1,141 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.SpringDemoApplication;
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.repository.mysql.MysqlStudentRepository;
+import com.example.springDemo.repository.postgres.PostgresStudentRepository;
+import com.example.springDemo.service.StudentService;
+import com.example.springDemo.service.index.StudentAgeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findStudentsOlderThan through the repository (entities and DTO projection) against the
+ * in-memory {@link StudentAgeIndex} (binary search over sorted primitive arrays plus a small
+ * delta), on the databases configured in application.properties. {@code indexUpsert} measures
+ * a single-row write, including its share of the periodic delta merge.
+ * Run through {@link JmhBenchmarks}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentAgeIndexBenchmark {
+
+  @Param({"postgres", "mysql"})
+  public String source;
+
+  // 年龄在 16..35 之间均匀分布，33 大约命中 10% 的行
+  @Param({"33"})
+  public int olderThan;
+
+  @Param({"20000"})
+  public int rows;
+
+  private ConfigurableApplicationContext context;
+  private JpaRepository<Student, Long> repository;
+  private PostgresStudentRepository postgresRepository;
+  private MysqlStudentRepository mysqlRepository;
+  private final StudentAgeIndex index = new StudentAgeIndex();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(SpringDemoApplication.class)
+        .properties("server.port=0", "logging.level.org.hibernate.SQL=WARN",
+            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+        .run();
+    StudentService studentService = context.getBean(source + "StudentService", StudentService.class);
+    long existing;
+    if ("mysql".equals(source)) {
+      mysqlRepository = context.getBean(MysqlStudentRepository.class);
+      repository = mysqlRepository;
+      existing = mysqlRepository.count();
+    } else {
+      postgresRepository = context.getBean(PostgresStudentRepository.class);
+      repository = postgresRepository;
+      existing = postgresRepository.count();
+    }
+    if (existing < rows) {
+      studentService.saveAll(students((int) (rows - existing)));
+    }
+    index.load("mysql".equals(source)
+        ? mysqlRepository::findAllSummariesOrderedByAge
+        : postgresRepository::findAllSummariesOrderedByAge);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<Student> repositoryEntities() {
+    return "mysql".equals(source)
+        ? mysqlRepository.findByAgeGreaterThan(olderThan)
+        : postgresRepository.findByAgeGreaterThan(olderThan);
+  }
+
+  @Benchmark
+  public List<StudentDTO> repositorySummaries() {
+    return "mysql".equals(source)
+        ? mysqlRepository.findSummariesByAgeGreaterThan(olderThan)
+        : postgresRepository.findSummariesByAgeGreaterThan(olderThan);
+  }
+
+  @Benchmark
+  public List<Student> indexThenFindAllById() {
+    long[] ids = index.idsInAgeRange(olderThan + 1, Integer.MAX_VALUE);
+    List<Long> boxed = new ArrayList<>(ids.length);
+    for (long id : ids) {
+      boxed.add(id);
+    }
+    return repository.findAllById(boxed);
+  }
+
+  @Benchmark
+  public List<StudentDTO> indexSummaries() {
+    return index.summariesInAgeRange(olderThan + 1, Integer.MAX_VALUE);
+  }
+
+  // 随机一行改到另一个年龄（id 不存在时相当于插入）
+  @Benchmark
+  public void indexUpsert() {
+    long id = 1 + ThreadLocalRandom.current().nextInt(rows);
+    index.upsert(id, "age-bench-upsert", 16 + ThreadLocalRandom.current().nextInt(20));
+  }
+
+  private static List<Student> students(int count) {
+    List<Student> students = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Student student = new Student();
+      student.setName("age-bench-" + i);
+      student.setAge(16 + i % 20);
+      student.setBirth(LocalDate.of(1995, 1, 1).plusDays(i % 4000));
+      students.add(student);
+    }
+    return students;
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows/sec of the single-row save path against the JDBC batch path, on the databases
+ * configured in application.properties. Opt-in because it needs both databases running:
+ * <pre>
+ *   mvn test -Dtest=StudentBulkInsertBenchmark -Dbenchmark=true -Dbenchmark.rows=20000
+ * </pre>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StudentBulkInsertBenchmark {
+
+  private static final String NAME_PREFIX = "bulk-bench-";
+
+  @Autowired
+  @Qualifier("postgresStudentService")
+  private StudentService postgresStudentService;
+
+  @Autowired
+  @Qualifier("mysqlStudentService")
+  private StudentService mysqlStudentService;
+
+  @Autowired
+  @Qualifier("postgresDataSource")
+  private DataSource postgresDataSource;
+
+  @Autowired
+  @Qualifier("mysqlDataSource")
+  private DataSource mysqlDataSource;
+
+  private final int rows = Integer.getInteger("benchmark.rows", 10_000);
+
+  @Test
+  void postgres() {
+    compare("postgres", postgresStudentService);
+  }
+
+  @Test
+  void mysql() {
+    compare("mysql", mysqlStudentService);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    for (DataSource dataSource : List.of(postgresDataSource, mysqlDataSource)) {
+      new JdbcTemplate(dataSource).update("DELETE FROM students WHERE name LIKE ?", NAME_PREFIX + "%");
+    }
+  }
+
+  private void compare(String source, StudentService studentService) {
+    // 单行路径很慢，只取十分之一的行数来估算速率
+    List<Student> singleRows = students(Math.max(1, rows / 10));
+    long start = System.nanoTime();
+    singleRows.forEach(studentService::saveStudent);
+    double singleRate = rate(singleRows.size(), System.nanoTime() - start);
+
+    List<Student> bulkRows = students(rows);
+    start = System.nanoTime();
+    studentService.saveAll(bulkRows);
+    double bulkRate = rate(bulkRows.size(), System.nanoTime() - start);
+
+    System.out.printf("[%s] saveStudent: %.0f rows/s, saveAll: %.0f rows/s (x%.1f)%n",
+        source, singleRate, bulkRate, bulkRate / singleRate);
+  }
+
+  private static double rate(int count, long elapsedNanos) {
+    return count * 1_000_000_000d / elapsedNanos;
+  }
+
+  private static List<Student> students(int count) {
+    List<Student> students = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Student student = new Student();
+      student.setName(NAME_PREFIX + i);
+      student.setAge(18 + i % 10);
+      student.setSsn("000-00-" + String.format("%04d", i % 10_000));
+      student.setBirth(LocalDate.of(2000, 1, 1).plusDays(i % 3650));
+      student.setCreditCardNumber("4111-1111-1111-1111");
+      students.add(student);
+    }
+    return students;
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.dto.ImportResult;
+import com.example.springDemo.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rows/sec of the CSV import pipeline (COPY on PostgreSQL, rewritten batches on MySQL)
+ * against the databases configured in application.properties. Opt-in like
+ * {@link StudentBulkInsertBenchmark}:
+ * <pre>
+ *   mvn test -Dtest=StudentCsvImportBenchmark -Dbenchmark=true -Dbenchmark.rows=200000
+ * </pre>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StudentCsvImportBenchmark {
+
+  private static final String NAME_PREFIX = "import-bench-";
+
+  @Autowired
+  @Qualifier("postgresStudentService")
+  private StudentService postgresStudentService;
+
+  @Autowired
+  @Qualifier("mysqlStudentService")
+  private StudentService mysqlStudentService;
+
+  @Autowired
+  @Qualifier("postgresDataSource")
+  private DataSource postgresDataSource;
+
+  @Autowired
+  @Qualifier("mysqlDataSource")
+  private DataSource mysqlDataSource;
+
+  private final int rows = Integer.getInteger("benchmark.rows", 100_000);
+
+  @Test
+  void postgres() throws IOException {
+    run("postgres", postgresStudentService);
+  }
+
+  @Test
+  void mysql() throws IOException {
+    run("mysql", mysqlStudentService);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    for (DataSource dataSource : List.of(postgresDataSource, mysqlDataSource)) {
+      new JdbcTemplate(dataSource).update("DELETE FROM students WHERE name LIKE ?", NAME_PREFIX + "%");
+    }
+  }
+
+  private void run(String source, StudentService studentService) throws IOException {
+    String csv = csv(rows);
+    ImportResult result = studentService.importStudents(new StringReader(csv));
+    System.out.printf("[%s] importStudents: %d rows in %d ms, %d rows/s (%d rejected, %d chunks)%n",
+        source, result.getImported(), result.getElapsedMillis(), result.getRowsPerSecond(),
+        result.getRejected(), result.getChunks());
+  }
+
+  private static String csv(int count) {
+    StringBuilder csv = new StringBuilder(count * 64).append("name,age,ssn,birth,credit_card_number\n");
+    for (int i = 0; i < count; i++) {
+      csv.append(NAME_PREFIX).append(i).append(',')
+          .append(18 + i % 10).append(',')
+          .append("000-00-").append(String.format("%04d", i % 10_000)).append(',')
+          .append(LocalDate.of(2000, 1, 1).plusDays(i % 3650)).append(',')
+          .append("4111-1111-1111-1111\n");
+    }
+    return csv.toString();
+  }
+}
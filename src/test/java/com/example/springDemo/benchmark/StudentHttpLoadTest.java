@@ -0,0 +1,318 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end HTTP load test: security filter chain, StudentController, service proxies,
+ * JPA and Hikari, with the app running on the {@link EmbeddedDatabase} stand-ins.
+ * It seeds {@code loadtest.rows} students, then {@code loadtest.concurrency} virtual-thread
+ * clients run a weighted mix of calls with HTTP Basic auth. After a warm-up, it records
+ * HdrHistogram latencies per operation and the Hikari connection-acquire times. The report
+ * is printed and written as JSON to {@code loadtest.report}, so runs can be compared:
+ * <pre>
+ *   mvn test -Dtest=StudentHttpLoadTest -Dloadtest=true -Dloadtest.concurrency=64 -Dloadtest.duration=60s \
+ *       -Dloadtest.mix=list=5,get=50,search=15,create=10,update=15,delete=5
+ * </pre>
+ * Extra application arguments for comparing configurations go in {@code loadtest.args}, separated
+ * by spaces, e.g. {@code -Dloadtest.args=--app.security.basic-auth-cache.enabled=false}.
+ * {@code -Dloadtest.auth=bearer} fetches one token from {@code /api/auth/token} and sends it
+ * instead of the Basic credentials.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class StudentHttpLoadTest {
+
+  private enum Operation { LIST, GET, SEARCH, CREATE, UPDATE, DELETE }
+
+  private static final String NAME_PREFIX = "load-";
+  // 记录到 60 秒，3 位有效数字
+  private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+  private final String source = System.getProperty("loadtest.source", "postgres");
+  private final int rows = Integer.getInteger("loadtest.rows", 10_000);
+  private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+  private final Duration warmup = Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s"));
+  private final Duration duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "30s"));
+  private final Map<Operation, Integer> mix =
+      parseMix(System.getProperty("loadtest.mix", "list=5,get=50,search=15,create=10,update=15,delete=5"));
+  private final String auth = System.getProperty("loadtest.auth", "basic");
+  private final String basicAuthorization = "Basic " + Base64.getEncoder().encodeToString(
+      (System.getProperty("loadtest.user", "admin") + ":" + System.getProperty("loadtest.password", "admin"))
+          .getBytes(StandardCharsets.UTF_8));
+  private final String[] appArgs = System.getProperty("loadtest.args", "").isBlank()
+      ? new String[0] : System.getProperty("loadtest.args").trim().split("\\s+");
+  private final File reportFile = new File(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .executor(Executors.newVirtualThreadPerTaskExecutor())
+      .build();
+  private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+  private String baseUrl;
+  private String authorization;
+  private long firstId;
+
+  @Test
+  void run() throws Exception {
+    try (ConfigurableApplicationContext context = EmbeddedDatabase.start(appArgs)) {
+      String serverUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+      baseUrl = serverUrl + "/api/students/" + source;
+      authorization = "bearer".equals(auth) ? "Bearer " + fetchToken(serverUrl) : basicAuthorization;
+      StudentService studentService = context.getBean(source + "StudentService", StudentService.class);
+      studentService.saveAll(students(rows));
+      firstId = studentService.getStudentsAfter(0L, 1).get(0).getId();
+      MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+      runPhase(warmup, newRecorders(), new AtomicLong());
+
+      Map<String, double[]> acquireBefore = acquireSnapshot(meterRegistry);
+      Map<Operation, Recorder> recorders = newRecorders();
+      AtomicLong errors = new AtomicLong();
+      Instant startedAt = Instant.now();
+      long elapsedNanos = runPhase(duration, recorders, errors);
+      Map<String, double[]> acquireAfter = acquireSnapshot(meterRegistry);
+
+      writeReport(startedAt, elapsedNanos, recorders, errors.get(), acquireBefore, acquireAfter, meterRegistry);
+    }
+  }
+
+  private long runPhase(Duration phase, Map<Operation, Recorder> recorders, AtomicLong errors)
+      throws InterruptedException {
+    long start = System.nanoTime();
+    long deadline = start + phase.toNanos();
+    ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+    for (int i = 0; i < concurrency; i++) {
+      clients.submit(() -> {
+        while (System.nanoTime() < deadline) {
+          Operation operation = nextOperation();
+          long sent = System.nanoTime();
+          int status;
+          try {
+            status = call(operation);
+          } catch (Exception e) {
+            status = -1;
+          }
+          recorders.get(operation).recordValue(
+              Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent)));
+          if (status < 200 || status >= 300) {
+            errors.incrementAndGet();
+          }
+        }
+        return null;
+      });
+    }
+    clients.shutdown();
+    clients.awaitTermination(phase.toSeconds() + 60, TimeUnit.SECONDS);
+    return System.nanoTime() - start;
+  }
+
+  private int call(Operation operation) throws Exception {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long seededId = firstId + random.nextInt(rows);
+    HttpRequest.Builder request = switch (operation) {
+      case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "/page?limit=100&after=" + seededId)).GET();
+      case GET -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + seededId)).GET();
+      case SEARCH -> HttpRequest.newBuilder(URI.create(
+          baseUrl + "/search?size=50&minAge=20&namePrefix=" + NAME_PREFIX + random.nextInt(100))).GET();
+      case CREATE -> jsonRequest(baseUrl, "POST", student(NAME_PREFIX + "new-" + random.nextInt(1_000_000)));
+      case UPDATE -> jsonRequest(baseUrl + "/" + seededId, "PUT", student(NAME_PREFIX + (seededId - firstId)));
+      case DELETE -> {
+        // 只删除压测过程中新建的行，种子数据保持不变；没有可删的就改为读
+        Long id = createdIds.poll();
+        yield id != null
+            ? HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE()
+            : HttpRequest.newBuilder(URI.create(baseUrl + "/" + seededId)).GET();
+      }
+    };
+    HttpResponse<byte[]> response = httpClient.send(
+        request.header("Authorization", authorization).build(), HttpResponse.BodyHandlers.ofByteArray());
+    if (operation == Operation.CREATE && response.statusCode() == 201) {
+      createdIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+    }
+    return response.statusCode();
+  }
+
+  private String fetchToken(String serverUrl) throws Exception {
+    HttpResponse<byte[]> response = httpClient.send(
+        HttpRequest.newBuilder(URI.create(serverUrl + "/api/auth/token"))
+            .header("Authorization", basicAuthorization)
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build(),
+        HttpResponse.BodyHandlers.ofByteArray());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("token request failed: " + response.statusCode());
+    }
+    return objectMapper.readTree(response.body()).get("access_token").asText();
+  }
+
+  private HttpRequest.Builder jsonRequest(String url, String method, Student student) throws Exception {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(student)));
+  }
+
+  private Operation nextOperation() {
+    int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+    int pick = ThreadLocalRandom.current().nextInt(total);
+    for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+      pick -= entry.getValue();
+      if (pick < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("empty mix");
+  }
+
+  // 每个连接池的 [获取次数, 总耗时 ms]，前后相减得到压测期间的等待
+  private static Map<String, double[]> acquireSnapshot(MeterRegistry meterRegistry) {
+    Map<String, double[]> snapshot = new LinkedHashMap<>();
+    for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+      snapshot.put(timer.getId().getTag("pool"),
+          new double[] {timer.count(), timer.totalTime(TimeUnit.MILLISECONDS)});
+    }
+    return snapshot;
+  }
+
+  private void writeReport(Instant startedAt, long elapsedNanos, Map<Operation, Recorder> recorders, long errors,
+                           Map<String, double[]> acquireBefore, Map<String, double[]> acquireAfter,
+                           MeterRegistry meterRegistry) throws Exception {
+    double seconds = elapsedNanos / 1e9;
+    Map<String, Object> operations = new LinkedHashMap<>();
+    long total = 0;
+    System.out.printf("%n%-8s %9s %10s %10s %10s %10s %10s%n", "op", "count", "req/s", "p50 ms", "p99 ms",
+        "p999 ms", "max ms");
+    for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+      Histogram histogram = entry.getValue().getIntervalHistogram();
+      if (histogram.getTotalCount() == 0) {
+        continue;
+      }
+      total += histogram.getTotalCount();
+      Map<String, Object> stats = new LinkedHashMap<>();
+      stats.put("count", histogram.getTotalCount());
+      stats.put("throughput", histogram.getTotalCount() / seconds);
+      stats.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+      stats.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+      stats.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+      stats.put("maxMs", histogram.getMaxValue() / 1000.0);
+      String name = entry.getKey().name().toLowerCase(Locale.ROOT);
+      operations.put(name, stats);
+      System.out.printf("%-8s %9d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(),
+          stats.get("throughput"), stats.get("p50Ms"), stats.get("p99Ms"), stats.get("p999Ms"), stats.get("maxMs"));
+    }
+
+    Map<String, Object> pools = new LinkedHashMap<>();
+    acquireAfter.forEach((pool, after) -> {
+      double[] before = acquireBefore.getOrDefault(pool, new double[2]);
+      double count = after[0] - before[0];
+      Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+      Map<String, Object> stats = new LinkedHashMap<>();
+      stats.put("acquireCount", (long) count);
+      stats.put("acquireMeanMs", count > 0 ? (after[1] - before[1]) / count : 0.0);
+      stats.put("acquireMaxMs", timer != null ? timer.max(TimeUnit.MILLISECONDS) : 0.0);
+      pools.put(pool, stats);
+      System.out.printf("hikari[%s] acquires=%d mean=%.3f ms max=%.3f ms%n", pool, (long) count,
+          stats.get("acquireMeanMs"), stats.get("acquireMaxMs"));
+    });
+    System.out.printf("total %d requests, %.1f req/s, %d errors%n", total, total / seconds, errors);
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("startedAt", startedAt.toString());
+    report.put("source", source);
+    report.put("args", appArgs);
+    report.put("auth", auth);
+    report.put("rows", rows);
+    report.put("concurrency", concurrency);
+    report.put("durationSeconds", seconds);
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    mix.forEach((operation, weight) -> weights.put(operation.name().toLowerCase(Locale.ROOT), weight));
+    report.put("mix", weights);
+    report.put("requests", total);
+    report.put("throughput", total / seconds);
+    report.put("errors", errors);
+    report.put("operations", operations);
+    report.put("hikari", pools);
+    File parent = reportFile.getAbsoluteFile().getParentFile();
+    if (parent != null) {
+      parent.mkdirs();
+    }
+    objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+    System.out.println("report written to " + reportFile.getAbsolutePath());
+  }
+
+  private Map<Operation, Recorder> newRecorders() {
+    Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    for (Operation operation : mix.keySet()) {
+      recorders.put(operation, new Recorder(MAX_LATENCY_MICROS, 3));
+    }
+    return recorders;
+  }
+
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String part : mix.split(",")) {
+      String[] pair = part.trim().split("=");
+      int weight = Integer.parseInt(pair[1].trim());
+      if (weight > 0) {
+        weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+      }
+    }
+    return weights;
+  }
+
+  private static Student student(String name) {
+    Student student = new Student();
+    student.setName(name);
+    student.setAge(16 + ThreadLocalRandom.current().nextInt(20));
+    student.setBirth(LocalDate.of(1995, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(4000)));
+    return student;
+  }
+
+  private static List<Student> students(int count) {
+    List<Student> students = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Student student = new Student();
+      student.setName(NAME_PREFIX + i);
+      student.setAge(16 + i % 20);
+      student.setSsn("000-00-" + String.format("%04d", i % 10_000));
+      student.setBirth(LocalDate.of(1995, 1, 1).plusDays(i % 4000));
+      student.setCreditCardNumber("4111-1111-1111-1111");
+      students.add(student);
+    }
+    return students;
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.dto.StudentSearchCriteria;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The StudentService read and write paths end to end (proxies, cache, bulkhead,
+ * transactions, Hibernate, JDBC) on the {@link EmbeddedDatabase}. Run through
+ * {@link JmhBenchmarks}, e.g. {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+  private static final String NAME_PREFIX = "service-bench-";
+
+  @Param({"postgres", "mysql"})
+  public String source;
+
+  @Param({"10000"})
+  public int rows;
+
+  private ConfigurableApplicationContext context;
+  private StudentService studentService;
+  private long firstId;
+  private final StudentSearchCriteria criteria = new StudentSearchCriteria();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = EmbeddedDatabase.start();
+    studentService = context.getBean(source + "StudentService", StudentService.class);
+    studentService.saveAll(students(rows));
+    firstId = studentService.getStudentsAfter(0L, 1).get(0).getId();
+    criteria.setNamePrefix(NAME_PREFIX + "12");
+    criteria.setMinAge(20);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  // 命中 Caffeine 缓存的路径
+  @Benchmark
+  public Optional<Student> getStudentById() {
+    return studentService.getStudentById(randomId());
+  }
+
+  @Benchmark
+  public List<Student> findStudentsByName() {
+    return studentService.findStudentsByName(NAME_PREFIX + ThreadLocalRandom.current().nextInt(rows));
+  }
+
+  @Benchmark
+  public List<StudentDTO> findStudentSummariesOlderThan() {
+    return studentService.findStudentSummariesOlderThan(33);
+  }
+
+  @Benchmark
+  public List<Student> getStudentsAfter() {
+    return studentService.getStudentsAfter(randomId(), 100);
+  }
+
+  @Benchmark
+  public List<Student> searchStudents() {
+    return studentService.searchStudents(criteria, 0, 50);
+  }
+
+  // 单条 UPDATE，表大小不变
+  @Benchmark
+  public int updateStudent() {
+    long id = randomId();
+    Student student = new Student();
+    student.setName(NAME_PREFIX + (id - firstId));
+    student.setAge(16 + (int) (id % 20));
+    return studentService.updateStudent(id, null, student);
+  }
+
+  private long randomId() {
+    return firstId + ThreadLocalRandom.current().nextInt(rows);
+  }
+
+  private static List<Student> students(int count) {
+    List<Student> students = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Student student = new Student();
+      student.setName(NAME_PREFIX + i);
+      student.setAge(16 + i % 20);
+      student.setSsn("000-00-" + String.format("%04d", i % 10_000));
+      student.setBirth(LocalDate.of(1995, 1, 1).plusDays(i % 4000));
+      student.setCreditCardNumber("4111-1111-1111-1111");
+      students.add(student);
+    }
+    return students;
+  }
+}
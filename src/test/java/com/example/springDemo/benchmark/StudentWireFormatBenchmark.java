@@ -0,0 +1,98 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.client.StudentWireCodec;
+import com.example.springDemo.client.StudentWireFormat;
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode time of student lists of several sizes in each {@link StudentWireFormat}
+ * (JSON is the Jackson baseline), through the same {@link StudentWireCodec} clients use. Bytes per row are printed once per trial.
+ * No database needed:
+ * <pre>
+ *   mvn test -Dtest=JmhBenchmarks -Dbenchmark=true -Dbenchmark.include=StudentWireFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentWireFormatBenchmark {
+
+  @Param({"JSON", "CBOR", "SMILE"})
+  public StudentWireFormat format;
+
+  @Param({"10", "1000", "10000"})
+  public int rows;
+
+  private StudentWireCodec codec;
+  private List<Student> students;
+  private List<StudentDTO> summaries;
+  private byte[] encodedStudents;
+  private byte[] encodedSummaries;
+
+  @Setup
+  public void setUp() throws IOException {
+    codec = new StudentWireCodec(format);
+    students = new ArrayList<>(rows);
+    summaries = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      Student student = new Student();
+      student.setId((long) i + 1);
+      student.setName("student-" + i);
+      student.setAge(16 + i % 20);
+      student.setSsn("000-00-" + String.format("%04d", i % 10_000));
+      student.setBirth(LocalDate.of(2000, 1, 1).plusDays(i % 3650));
+      student.setCreditCardNumber("4111-1111-1111-1111");
+      student.setVersion(0L);
+      students.add(student);
+      summaries.add(new StudentDTO(student.getId(), student.getName(), student.getAge()));
+    }
+    encodedStudents = codec.encode(students);
+    encodedSummaries = codec.encode(summaries);
+    if (codec.decodeList(encodedStudents, Student.class).size() != rows) {
+      throw new IllegalStateException(format + " round trip lost rows");
+    }
+    System.out.printf("%n[%s] Student: %.1f bytes/row, StudentDTO: %.1f bytes/row%n", format,
+        (double) encodedStudents.length / rows, (double) encodedSummaries.length / rows);
+  }
+
+  @Benchmark
+  public byte[] encodeStudents() throws IOException {
+    return codec.encode(students);
+  }
+
+  @Benchmark
+  public List<Student> decodeStudents() throws IOException {
+    return codec.decodeList(encodedStudents, Student.class);
+  }
+
+  @Benchmark
+  public byte[] encodeSummaries() throws IOException {
+    return codec.encode(summaries);
+  }
+
+  @Benchmark
+  public List<StudentDTO> decodeSummaries() throws IOException {
+    return codec.decodeList(encodedSummaries, StudentDTO.class);
+  }
+}
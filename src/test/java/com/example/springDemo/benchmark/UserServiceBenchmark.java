@@ -0,0 +1,69 @@
+package com.example.springDemo.benchmark;
+
+import com.example.springDemo.model.User;
+import com.example.springDemo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserService#processOAuth2User} for a returning user (lookup + update, the path of
+ * every repeat login) and for a first login (registration, including hashing the random
+ * password), on the {@link EmbeddedDatabase}. Reported as logins per second from 4 threads
+ * (a login storm), with the prod logging profile so console output does not dominate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class UserServiceBenchmark {
+
+  private static final Map<String, Object> RETURNING_USER =
+      Map.of("email", "returning@example.com", "name", "Returning User", "sub", "returning-sub");
+
+  private ConfigurableApplicationContext context;
+  private UserService userService;
+  private final AtomicLong newUsers = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = EmbeddedDatabase.start("--spring.profiles.active=prod");
+    userService = context.getBean(UserService.class);
+    userService.processOAuth2User("google", RETURNING_USER);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public User returningUser() {
+    return userService.processOAuth2User("google", RETURNING_USER);
+  }
+
+  @Benchmark
+  public User firstLogin() {
+    long n = newUsers.incrementAndGet();
+    return userService.processOAuth2User("google",
+        Map.of("email", "new-" + n + "@example.com", "name", "New User " + n, "sub", "new-sub-" + n));
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.springDemo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplingFilterTest {
+
+  private final LoggerContext context = new LoggerContext();
+
+  @Test
+  void passesOneInSampleRateEventsOfTheCategory() {
+    LogSamplingFilter filter = filter("org.hibernate.SQL", 10, 0);
+    Logger sql = logger("org.hibernate.SQL", Level.DEBUG);
+
+    int passed = 0;
+    for (int i = 0; i < 100; i++) {
+      if (filter.decide(null, sql, Level.DEBUG, "select 1", null, null) == FilterReply.NEUTRAL) {
+        passed++;
+      }
+    }
+    assertThat(passed).isEqualTo(10);
+  }
+
+  @Test
+  void rateLimitsPerSecond() {
+    LogSamplingFilter filter = filter("org.springframework.security", 1, 5);
+    Logger security = logger("org.springframework.security.web.FilterChainProxy", Level.DEBUG);
+
+    int passed = 0;
+    for (int i = 0; i < 50; i++) {
+      if (filter.decide(null, security, Level.DEBUG, "secured", null, null) == FilterReply.NEUTRAL) {
+        passed++;
+      }
+    }
+    // 循环可能跨过秒边界，最多两个窗口
+    assertThat(passed).isBetween(5, 10);
+  }
+
+  @Test
+  void leavesWarningsOtherCategoriesAndLevelChecksAlone() {
+    LogSamplingFilter filter = filter("org.hibernate.SQL", 1_000_000, 1);
+    Logger sql = logger("org.hibernate.SQL", Level.DEBUG);
+    filter.decide(null, sql, Level.DEBUG, "select 1", null, null);
+
+    assertThat(filter.decide(null, sql, Level.WARN, "slow", null, null)).isEqualTo(FilterReply.NEUTRAL);
+    assertThat(filter.decide(null, sql, Level.DEBUG, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+    assertThat(filter.decide(null, logger("org.hibernate.SQLQuery", Level.DEBUG), Level.DEBUG, "x", null, null))
+        .isEqualTo(FilterReply.NEUTRAL);
+    assertThat(filter.decide(null, sql, Level.DEBUG, "select 2", null, null)).isEqualTo(FilterReply.DENY);
+  }
+
+  private LogSamplingFilter filter(String category, int sampleRate, int maxPerSecond) {
+    LogSamplingFilter filter = new LogSamplingFilter();
+    filter.setContext(context);
+    filter.setCategory(category);
+    filter.setSampleRate(sampleRate);
+    filter.setMaxPerSecond(maxPerSecond);
+    filter.start();
+    return filter;
+  }
+
+  private Logger logger(String name, Level level) {
+    Logger logger = context.getLogger(name);
+    logger.setLevel(level);
+    return logger;
+  }
+}
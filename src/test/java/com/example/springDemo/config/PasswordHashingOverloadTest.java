@@ -0,0 +1,110 @@
+package com.example.springDemo.config;
+
+import com.example.springDemo.service.password.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.convention.TestBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logins through the real filter chains while the password hashing pool (one thread, one queue
+ * slot) is saturated: HTTP Basic and form login answer 503 with {@code Retry-After}, not 500.
+ */
+@SpringBootTest(properties = {
+    "app.database-init.enabled=false",
+    "app.security.password.hashing.retry-after=2s",
+    "spring.datasource.postgres.jdbc-url=jdbc:h2:mem:hashing-postgres;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.postgres.driver-class-name=org.h2.Driver",
+    "spring.datasource.postgres.username=sa",
+    "spring.datasource.postgres.password=",
+    "spring.datasource.mysql.jdbc-url=jdbc:h2:mem:hashing-mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.mysql.driver-class-name=org.h2.Driver",
+    "spring.datasource.mysql.username=sa",
+    "spring.datasource.mysql.password=",
+    "logging.level.root=WARN",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.com.example.springDemo=WARN"
+})
+@AutoConfigureMockMvc
+class PasswordHashingOverloadTest {
+
+  private static final String WRONG_PASSWORD =
+      "Basic " + Base64.getEncoder().encodeToString("admin:wrong".getBytes(StandardCharsets.UTF_8));
+
+  private static final CountDownLatch entered = new CountDownLatch(1);
+  private static final CountDownLatch release = new CountDownLatch(1);
+
+  @TestBean
+  private PasswordEncoder passwordEncoder;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  // matches("block", ...) 占住唯一的哈希线程，其余调用照常执行
+  static PasswordEncoder passwordEncoder() {
+    PasswordEncoder plain = new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        return rawPassword.toString();
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if ("block".contentEquals(rawPassword)) {
+          entered.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return rawPassword.toString().equals(encodedPassword);
+      }
+    };
+    return new BoundedPasswordEncoder(plain, 1, 1, new SimpleMeterRegistry());
+  }
+
+  @Test
+  void saturatedHashingAnswersLoginsWithServiceUnavailable() throws Exception {
+    BoundedPasswordEncoder bounded = (BoundedPasswordEncoder) passwordEncoder;
+    try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+      callers.submit(() -> bounded.matches("block", "block"));
+      entered.await();
+      callers.submit(() -> bounded.matches("queued", "queued"));
+      while (bounded.getQueuedCount() == 0) {
+        Thread.onSpinWait();
+      }
+
+      mockMvc.perform(get("/api/students/postgres").header(HttpHeaders.AUTHORIZATION, WRONG_PASSWORD))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+      mockMvc.perform(post("/login").param("username", "admin").param("password", "wrong"))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+
+      release.countDown();
+    }
+
+    // 队列空出来后恢复正常的认证失败
+    mockMvc.perform(get("/api/students/postgres").header(HttpHeaders.AUTHORIZATION, WRONG_PASSWORD))
+        .andExpect(status().isUnauthorized());
+    mockMvc.perform(post("/login").param("username", "admin").param("password", "wrong"))
+        .andExpect(status().is3xxRedirection());
+  }
+}
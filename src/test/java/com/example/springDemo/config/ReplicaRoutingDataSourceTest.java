@@ -0,0 +1,85 @@
+package com.example.springDemo.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+  private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource("postgres", Duration.ofSeconds(2));
+  private final ReadYourWritesFilter filter = new ReadYourWritesFilter();
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+  }
+
+  // 只有写过的客户端在窗口内读主库，其它客户端照常读副本
+  @Test
+  void onlyTheWritingClientReadsFromThePrimary() throws Exception {
+    MockHttpServletResponse written = routeWrite();
+    Cookie cookie = written.getCookie("ryw-postgres");
+    assertThat(cookie).isNotNull();
+    assertThat(written.getHeader(HttpHeaders.SET_COOKIE)).contains("HttpOnly");
+
+    assertThat(routeRead(null)).isEqualTo("REPLICA");
+    assertThat(routeRead(cookie)).isEqualTo("PRIMARY");
+    assertThat(routeRead(new Cookie("ryw-mysql", cookie.getValue()))).isEqualTo("REPLICA");
+  }
+
+  @Test
+  void expiredOrImplausibleCookiesAreIgnored() throws Exception {
+    long now = System.currentTimeMillis();
+    assertThat(routeRead(new Cookie("ryw-postgres", Long.toString(now - 1)))).isEqualTo("REPLICA");
+    assertThat(routeRead(new Cookie("ryw-postgres", Long.toString(now + 3_600_000)))).isEqualTo("REPLICA");
+    assertThat(routeRead(new Cookie("ryw-postgres", "junk"))).isEqualTo("REPLICA");
+  }
+
+  @Test
+  void readsAfterAWriteInTheSameRequestUseThePrimary() throws Exception {
+    AtomicReference<Object> afterWrite = new AtomicReference<>();
+    filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (req, res) -> {
+      route(false);
+      afterWrite.set(route(true));
+    });
+    assertThat(afterWrite.get()).hasToString("PRIMARY");
+  }
+
+  @Test
+  void workOutsideARequestIsNeverPinned() {
+    route(false);
+    assertThat(route(true)).hasToString("REPLICA");
+  }
+
+  private String routeRead(Cookie cookie) throws Exception {
+    AtomicReference<Object> target = new AtomicReference<>();
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    if (cookie != null) {
+      request.setCookies(cookie);
+    }
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> target.set(route(true)));
+    return target.get().toString();
+  }
+
+  private MockHttpServletResponse routeWrite() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> route(false));
+    return response;
+  }
+
+  private Object route(boolean readOnly) {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    return routing.determineCurrentLookupKey();
+  }
+}
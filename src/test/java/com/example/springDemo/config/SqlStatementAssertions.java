@@ -0,0 +1,31 @@
+package com.example.springDemo.config;
+
+/**
+ * Fails a test when a call issues more SQL statements than expected, so N+1 regressions
+ * break the build. The count comes from {@link SqlStatementCounter}. It covers everything
+ * Hibernate runs on the calling thread, which includes a whole MockMvc request:
+ * <pre>
+ *   SqlStatementAssertions.assertMaxStatements(1, () -> mockMvc.perform(get("/api/students/postgres/page")));
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+  @FunctionalInterface
+  public interface Call<T> {
+    T call() throws Exception;
+  }
+
+  private SqlStatementAssertions() {
+  }
+
+  public static <T> T assertMaxStatements(int maxStatements, Call<T> call) throws Exception {
+    SqlStatementCounter.Counts before = SqlStatementCounter.snapshot();
+    T result = call.call();
+    SqlStatementCounter.Counts counts = SqlStatementCounter.snapshot().minus(before);
+    if (counts.statements() > maxStatements) {
+      throw new AssertionError("Expected at most " + maxStatements + " SQL statements but got "
+          + counts.statements() + " (" + counts + ")");
+    }
+    return result;
+  }
+}
@@ -0,0 +1,126 @@
+package com.example.springDemo.controller;
+
+import com.example.springDemo.config.SqlStatisticsFilter;
+import com.example.springDemo.model.Role;
+import com.example.springDemo.model.User;
+import com.example.springDemo.repository.postgres.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.example.springDemo.config.SqlStatementAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the student endpoints and user lookups, on in-memory H2 databases
+ * standing in for PostgreSQL and MySQL.
+ */
+@SpringBootTest(properties = {
+    "app.database-init.enabled=false",
+    "app.students.sql-stats.header=true",
+    "spring.datasource.postgres.jdbc-url=jdbc:h2:mem:sqlstats-postgres;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+    "spring.datasource.postgres.driver-class-name=org.h2.Driver",
+    "spring.datasource.postgres.username=sa",
+    "spring.datasource.postgres.password=",
+    "spring.datasource.mysql.jdbc-url=jdbc:h2:mem:sqlstats-mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.mysql.driver-class-name=org.h2.Driver",
+    "spring.datasource.mysql.username=sa",
+    "spring.datasource.mysql.password=",
+    "logging.level.root=WARN",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.orm.jdbc.bind=WARN",
+    "logging.level.com.example.springDemo=WARN"
+})
+@AutoConfigureMockMvc
+class StudentControllerSqlStatementTest {
+
+  private static final String AUTHORIZATION =
+      "Basic " + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Test
+  void singleStudentReadsAndWritesStayWithinOneStatement() throws Exception {
+    MvcResult created = assertMaxStatements(1, () -> mockMvc.perform(post("/api/students/mysql")
+            .header("Authorization", AUTHORIZATION)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"budget\",\"age\":21}"))
+        .andExpect(status().isCreated())
+        .andReturn());
+    long id = objectMapper.readTree(created.getResponse().getContentAsByteArray()).get("id").asLong();
+
+    MvcResult read = assertMaxStatements(1, () -> mockMvc.perform(get("/api/students/mysql/" + id)
+            .header("Authorization", AUTHORIZATION))
+        .andExpect(status().isOk())
+        .andReturn());
+    assertThat(read.getResponse().getHeader(SqlStatisticsFilter.HEADER)).startsWith("statements=");
+  }
+
+  @Test
+  void pagesAndSummariesDoNotGrowWithTheNumberOfRows() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      mockMvc.perform(post("/api/students/postgres")
+              .header("Authorization", AUTHORIZATION)
+              .contentType(MediaType.APPLICATION_JSON)
+              .content("{\"name\":\"page-" + i + "\",\"age\":" + (18 + i) + "}"))
+          .andExpect(status().isCreated());
+    }
+
+    assertMaxStatements(1, () -> mockMvc.perform(get("/api/students/postgres/page?after=0&limit=20")
+            .header("Authorization", AUTHORIZATION))
+        .andExpect(status().isOk()));
+    assertMaxStatements(1, () -> mockMvc.perform(get("/api/students/postgres?view=summary")
+            .header("Authorization", AUTHORIZATION))
+        .andExpect(status().isOk()));
+  }
+
+  // 批量插入按生成的 id 更新内存姓名索引，不再整表重读（JDBC 批量本身不经过 Hibernate，不计入）
+  @Test
+  void bulkInsertUpdatesTheNameIndexWithoutReadingTheTable() throws Exception {
+    assertMaxStatements(0, () -> mockMvc.perform(post("/api/students/postgres/bulk")
+            .header("Authorization", AUTHORIZATION)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"name\":\"bulkindexed-one\",\"age\":20},{\"name\":\"bulkindexed-two\",\"age\":21}]"))
+        .andExpect(status().isCreated()));
+
+    MvcResult found = assertMaxStatements(0, () -> mockMvc.perform(get("/api/students/postgres/search?q=bulkindexed")
+            .header("Authorization", AUTHORIZATION))
+        .andExpect(status().isOk())
+        .andReturn());
+    assertThat(objectMapper.readTree(found.getResponse().getContentAsByteArray()).findValuesAsText("name"))
+        .containsExactlyInAnyOrder("bulkindexed-one", "bulkindexed-two");
+  }
+
+  // 角色存在 users.role_mask 里：按邮箱查用户只有一条语句
+  @Test
+  void userLookupIsASingleQuery() throws Exception {
+    User user = new User();
+    user.setUsername("budget-user");
+    user.setEmail("budget-user@example.com");
+    user.addRole(Role.ROLE_USER);
+    user.addRole(Role.ROLE_ADMIN);
+    userRepository.save(user);
+
+    User found = assertMaxStatements(1, () -> userRepository.findByEmail("budget-user@example.com").orElseThrow());
+    assertThat(found.getRoles()).containsExactlyInAnyOrder(Role.ROLE_USER, Role.ROLE_ADMIN);
+    assertThat(found.getAuthorities()).isSameAs(Role.authorities(found.getRoleMask()));
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.springDemo.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoleTest {
+
+  // 位值已经写进数据库和 postgres-init.sql 的迁移，不能变
+  @Test
+  void bitsArePersistedValues() {
+    assertThat(Role.ROLE_USER.getBit()).isEqualTo(1);
+    assertThat(Role.ROLE_ADMIN.getBit()).isEqualTo(2);
+  }
+
+  @Test
+  void everyRoleCombinationRoundTripsThroughTheMask() {
+    for (int mask = 0; mask < 1 << Role.values().length; mask++) {
+      Set<Role> roles = Role.fromMask(mask);
+      assertThat(Role.maskOf(roles)).isEqualTo(mask);
+      assertThat(AuthorityUtils.authorityListToSet(Role.authorities(mask)))
+          .containsExactlyInAnyOrderElementsOf(roles.stream().map(Role::name).toList());
+    }
+  }
+
+  @Test
+  void authoritiesAreSharedAndImmutable() {
+    User first = new User();
+    first.setRoles(EnumSet.of(Role.ROLE_ADMIN, Role.ROLE_USER));
+    User second = new User();
+    second.addRole(Role.ROLE_USER);
+    second.addRole(Role.ROLE_ADMIN);
+
+    assertThat(second.getAuthorities()).isSameAs(first.getAuthorities());
+    assertThatThrownBy(() -> first.getAuthorities().clear()).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void unknownBitsAreIgnored() {
+    assertThat(Role.authorities(0x100 | Role.ROLE_USER.getBit())).isSameAs(Role.authorities(Role.ROLE_USER.getBit()));
+  }
+}
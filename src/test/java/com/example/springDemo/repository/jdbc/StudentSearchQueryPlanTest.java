@@ -0,0 +1,128 @@
+package com.example.springDemo.repository.jdbc;
+
+import com.example.springDemo.dto.StudentSearchCriteria;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs EXPLAIN for every search shape produced by {@link StudentJdbcSearchRepository}
+ * against real PostgreSQL and MySQL, with the indexes from the init scripts, and fails
+ * when a query can only be answered by a full table scan.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class StudentSearchQueryPlanTest {
+
+  @Container
+  static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @Container
+  static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+  private static JdbcTemplate postgres;
+  private static JdbcTemplate mysql;
+
+  @BeforeAll
+  static void createSchema() throws Exception {
+    postgres = initialize(POSTGRES, "sql/postgres-init.sql");
+    mysql = initialize(MYSQL, "sql/mysql-init.sql");
+    postgres.execute("ANALYZE students");
+    mysql.execute("ANALYZE TABLE students");
+  }
+
+  @Test
+  void postgresSearchesUseAnIndex() {
+    for (StudentSearchCriteria criteria : searchShapes()) {
+      StudentJdbcSearchRepository.SearchQuery query = StudentJdbcSearchRepository.buildQuery(criteria, 0, 20);
+      String plan = String.join("\n", postgres.execute((Connection connection) -> {
+        // 关掉顺序扫描后，计划里仍出现 Seq Scan 说明没有任何索引能用
+        connection.createStatement().execute("SET enable_seqscan = off");
+        List<String> lines = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+          for (int i = 0; i < query.args().size(); i++) {
+            statement.setObject(i + 1, query.args().get(i));
+          }
+          try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+              lines.add(rs.getString(1));
+            }
+          }
+        }
+        return lines;
+      }));
+      assertFalse(plan.contains("Seq Scan"), () -> query.sql() + " falls back to a sequential scan:\n" + plan);
+    }
+  }
+
+  @Test
+  void mysqlSearchesUseAnIndex() {
+    for (StudentSearchCriteria criteria : searchShapes()) {
+      StudentJdbcSearchRepository.SearchQuery query = StudentJdbcSearchRepository.buildQuery(criteria, 0, 20);
+      List<Map<String, Object>> plan = mysql.queryForList("EXPLAIN " + query.sql(), query.args().toArray());
+      Map<String, Object> students = plan.get(0);
+      assertNotNull(students.get("possible_keys"), () -> query.sql() + " has no usable index: " + plan);
+      assertNotEquals("ALL", students.get("type"), () -> query.sql() + " does a full table scan: " + plan);
+    }
+  }
+
+  // 条件都取得比较有选择性，否则 MySQL 优化器会合理地选择全表扫描
+  private static List<StudentSearchCriteria> searchShapes() {
+    List<StudentSearchCriteria> shapes = new ArrayList<>();
+    shapes.add(criteria("student-12", null, null, null, null));
+    shapes.add(criteria("student-12", 18, 19, null, null));
+    shapes.add(criteria("student-12", 18, 30, LocalDate.of(2000, 1, 1), LocalDate.of(2000, 12, 31)));
+    shapes.add(criteria(null, 30, 31, null, null));
+    shapes.add(criteria(null, 34, null, LocalDate.of(2000, 1, 1), null));
+    shapes.add(criteria(null, null, null, LocalDate.of(2000, 1, 1), LocalDate.of(2000, 3, 1)));
+    return shapes;
+  }
+
+  private static StudentSearchCriteria criteria(String namePrefix, Integer minAge, Integer maxAge,
+                                                LocalDate bornFrom, LocalDate bornTo) {
+    StudentSearchCriteria criteria = new StudentSearchCriteria();
+    criteria.setNamePrefix(namePrefix);
+    criteria.setMinAge(minAge);
+    criteria.setMaxAge(maxAge);
+    criteria.setBornFrom(bornFrom);
+    criteria.setBornTo(bornTo);
+    return criteria;
+  }
+
+  private static JdbcTemplate initialize(JdbcDatabaseContainer<?> container, String script) throws Exception {
+    DataSource dataSource = new DriverManagerDataSource(
+        container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    try (Connection connection = dataSource.getConnection()) {
+      ScriptUtils.executeSqlScript(connection, new ClassPathResource(script));
+    }
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    // 造一些分布均匀的数据，让优化器的统计信息接近真实情况
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      rows.add(new Object[]{"student-" + i, 16 + i % 20, Date.valueOf(LocalDate.of(1995, 1, 1).plusDays(i % 4000))});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO students (name, age, birth, version) VALUES (?, ?, ?, 0)", rows);
+    return jdbcTemplate;
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.springDemo.service.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatasourceBulkheadTest {
+
+  @Test
+  void rejectsCallsBeyondTheLimitAfterMaxWait() throws Throwable {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    DatasourceBulkhead bulkhead = new DatasourceBulkhead("mysql", 1, Duration.ofMillis(50), meterRegistry);
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<String> slowCall = executor.submit(() -> {
+        try {
+          return bulkhead.execute(() -> {
+            entered.countDown();
+            release.await();
+            return "done";
+          });
+        } catch (Throwable e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      entered.await();
+      assertThat(bulkhead.getActiveCalls()).isEqualTo(1);
+
+      assertThatThrownBy(() -> bulkhead.execute(() -> "second")).isInstanceOf(BulkheadFullException.class);
+      assertThat(meterRegistry.get("students.bulkhead.rejected").tag("source", "mysql").counter().count())
+          .isEqualTo(1);
+
+      release.countDown();
+      assertThat(slowCall.get()).isEqualTo("done");
+    }
+    assertThat(bulkhead.getActiveCalls()).isZero();
+    assertThat(bulkhead.execute(() -> "third")).isEqualTo("third");
+  }
+}
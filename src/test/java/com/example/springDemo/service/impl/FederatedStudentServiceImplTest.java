@@ -0,0 +1,75 @@
+package com.example.springDemo.service.impl;
+
+import com.example.springDemo.dto.FederatedResult;
+import com.example.springDemo.dto.FederatedStudent;
+import com.example.springDemo.model.Student;
+import com.example.springDemo.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FederatedStudentServiceImplTest {
+
+  private static final LocalDate BIRTH = LocalDate.of(2001, 5, 4);
+
+  private final StudentService postgres = mock(StudentService.class);
+  private final StudentService mysql = mock(StudentService.class);
+  private final FederatedStudentServiceImpl federated =
+      new FederatedStudentServiceImpl(postgres, mysql, Duration.ofSeconds(2));
+
+  @AfterEach
+  void tearDown() {
+    federated.shutdown();
+  }
+
+  // 同一个库里 name + birth（或 ssn）相同的两行是两个学生，都要保留
+  @Test
+  void rowsOfOneSourceAreNeverMerged() {
+    when(postgres.getAllStudents()).thenReturn(List.of(
+        student(1L, "Ann", null), student(2L, "Ann", null), student(3L, "Bob", "111"), student(4L, "Bo", "111")));
+    when(mysql.getAllStudents()).thenReturn(List.of());
+
+    assertThat(federated.getAllStudents().getItems())
+        .extracting(row -> row.getStudent().getId()).containsExactly(1L, 2L, 3L, 4L);
+  }
+
+  @Test
+  void rowsDuplicatingAnEarlierSourceAreDropped() {
+    when(postgres.getAllStudents()).thenReturn(List.of(student(1L, "Ann", null), student(2L, "Bob", "111")));
+    when(mysql.getAllStudents()).thenReturn(List.of(
+        student(7L, "Ann", null), student(8L, "Robert", "111"), student(9L, "Cid", null)));
+
+    FederatedResult<FederatedStudent> result = federated.getAllStudents();
+
+    assertThat(result.getItems()).extracting(row -> row.getStudent().getId()).containsExactly(1L, 2L, 9L);
+    assertThat(result.getItems()).extracting(FederatedStudent::getSource).containsExactly("postgres", "postgres", "mysql");
+    assertThat(result.isPartial()).isFalse();
+  }
+
+  @Test
+  void noAnsweringSourceMakesTheResultUnavailable() {
+    when(postgres.getAllStudents()).thenThrow(new IllegalStateException("down"));
+    when(mysql.getAllStudents()).thenThrow(new IllegalStateException("down"));
+
+    FederatedResult<FederatedStudent> result = federated.getAllStudents();
+
+    assertThat(result.isUnavailable()).isTrue();
+    assertThat(result.getFailedSources()).containsExactly("postgres", "mysql");
+  }
+
+  private static Student student(Long id, String name, String ssn) {
+    Student student = new Student();
+    student.setId(id);
+    student.setName(name);
+    student.setSsn(ssn);
+    student.setBirth(BIRTH);
+    return student;
+  }
+}
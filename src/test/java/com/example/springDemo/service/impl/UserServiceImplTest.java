@@ -0,0 +1,110 @@
+package com.example.springDemo.service.impl;
+
+import com.example.springDemo.config.CacheConfig;
+import com.example.springDemo.model.User;
+import com.example.springDemo.repository.postgres.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+  private static final Map<String, Object> LOGIN =
+      Map.of("email", "ada@example.com", "name", "Ada", "sub", "sub-1");
+
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+  private UserServiceImpl userService;
+
+  @BeforeEach
+  void setUp() {
+    userService = new UserServiceImpl(userRepository, passwordEncoder,
+        new ConcurrentMapCacheManager(CacheConfig.USERS));
+    when(passwordEncoder.encode(any())).thenAnswer(invocation -> "encoded:" + invocation.getArgument(0));
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  void repeatLoginWithUnchangedAttributesIsServedFromTheCache() {
+    when(userRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(existingUser("Ada")));
+
+    User first = userService.processOAuth2User("google", LOGIN);
+    User second = userService.processOAuth2User("google", LOGIN);
+
+    assertThat(second).isNotSameAs(first).usingRecursiveComparison().isEqualTo(first);
+    verify(userRepository, times(1)).findByEmail("ada@example.com");
+    verify(userRepository, never()).save(any(User.class));
+    assertThat(userService.findByUsername("ada")).get().usingRecursiveComparison().isEqualTo(first);
+    assertThat(userService.existsByUsername("ada")).isTrue();
+  }
+
+  @Test
+  void changedAttributesAreWrittenAndReplaceTheCachedUser() {
+    when(userRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(existingUser("Ada")));
+    userService.processOAuth2User("google", LOGIN);
+
+    when(userRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(existingUser("Ada")));
+    User renamed = userService.processOAuth2User("google",
+        Map.of("email", "ada@example.com", "name", "Ada Lovelace", "sub", "sub-1"));
+
+    assertThat(renamed.getName()).isEqualTo("Ada Lovelace");
+    verify(userRepository, times(1)).save(any(User.class));
+    assertThat(userService.findByEmail("ada@example.com")).get().extracting(User::getName).isEqualTo("Ada Lovelace");
+  }
+
+  @Test
+  void saveUserEvictsTheOldUsername() {
+    User user = existingUser("Ada");
+    when(userRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(user));
+    userService.findByEmail("ada@example.com");
+    assertThat(userService.existsByUsername("ada")).isTrue();
+
+    User renamed = existingUser("Ada");
+    renamed.setUsername("lovelace");
+    when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser("Ada")));
+    userService.saveUser(renamed);
+
+    assertThat(userService.existsByUsername("ada")).isFalse();
+    assertThat(userService.findByUsername("lovelace")).get().usingRecursiveComparison().isEqualTo(renamed);
+  }
+
+  @Test
+  void callersGetTheirOwnCopyOfACachedUser() {
+    when(userRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(existingUser("Ada")));
+    User first = userService.findByEmail("ada@example.com").orElseThrow();
+
+    first.setName("changed by caller");
+    first.setPassword("secret");
+    userService.saveUser(first);
+    User second = userService.findByUsername("ada").orElseThrow();
+    second.setName("changed again");
+
+    User third = userService.findByEmail("ada@example.com").orElseThrow();
+    assertThat(third.getName()).isEqualTo("changed by caller");
+    assertThat(third.getPassword()).isEqualTo("encoded:secret");
+    assertThat(third).isNotSameAs(first).isNotSameAs(second);
+  }
+
+  private static User existingUser(String name) {
+    User user = new User();
+    user.setId(1L);
+    user.setUsername("ada");
+    user.setEmail("ada@example.com");
+    user.setName(name);
+    user.setProvider("google");
+    user.setProviderId("sub-1");
+    return user;
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.springDemo.service.importer;
+
+import com.example.springDemo.dto.ImportResult;
+import com.example.springDemo.dto.RejectedRow;
+import com.example.springDemo.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentCsvImporterTest {
+
+  @Test
+  void importsValidRowsInChunksAndReportsRejectedOnes() throws Exception {
+    String csv = """
+        id,name,age,ssn,birth,credit_card_number,version
+        1,alice,20,111,2004-01-02,,0
+        2,"Smith, ""Bob""
+        Jr.",21,,,,0
+        3,,22,,,,0
+        4,carol,abc,,,,0
+        5,dave,23,,2004-13-01,,0
+        6,erin,24
+        7,frank,25,,,,0
+        """;
+    List<List<Student>> chunks = new ArrayList<>();
+    ImportResult result = new StudentCsvImporter(2, 10).importCsv(new StringReader(csv), chunk -> {
+      chunks.add(List.copyOf(chunk));
+      return chunk.size();
+    });
+
+    assertThat(result.getImported()).isEqualTo(3);
+    assertThat(result.getChunks()).isEqualTo(2);
+    assertThat(chunks.get(0)).extracting(Student::getName).containsExactly("alice", "Smith, \"Bob\"\nJr.");
+    assertThat(chunks.get(0).get(0).getBirth()).hasToString("2004-01-02");
+    assertThat(chunks.get(1)).extracting(Student::getName).containsExactly("frank");
+    // 行号按物理行计算，第 2 条记录跨两行
+    assertThat(result.getRejected()).isEqualTo(4);
+    assertThat(result.getRejectedRows()).extracting(RejectedRow::getLine).containsExactly(5L, 6L, 7L, 8L);
+  }
+
+  // 约束冲突时把 chunk 对半重试，只报告真正出错的行
+  @Test
+  void retriesARejectedChunkInHalvesToFindTheBadRows() throws Exception {
+    String csv = "name\na\nbad\nc\nd\ne\nbad\ng\n";
+    List<Integer> attempts = new ArrayList<>();
+    ImportResult result = new StudentCsvImporter(4, 10).importCsv(new StringReader(csv), chunk -> {
+      attempts.add(chunk.size());
+      if (chunk.stream().anyMatch(student -> student.getName().equals("bad"))) {
+        throw new DataIntegrityViolationException("duplicate", new IllegalStateException("duplicate key"));
+      }
+      return chunk.size();
+    });
+
+    assertThat(result.getImported()).isEqualTo(5);
+    assertThat(result.getChunks()).isEqualTo(2);
+    assertThat(result.getRejectedRows()).extracting(RejectedRow::getLine).containsExactly(3L, 7L);
+    assertThat(result.getRejectedRows()).extracting(RejectedRow::getReason).containsOnly("duplicate key");
+    assertThat(attempts).containsExactly(4, 2, 1, 1, 2, 3, 1, 2, 1, 1);
+  }
+
+  @Test
+  void rejectsWholeChunkWhenTheFailureIsNotAboutARow() throws Exception {
+    String csv = "name\na\nb\nc\n";
+    ImportResult result = new StudentCsvImporter(2, 1).importCsv(new StringReader(csv), chunk -> {
+      if (chunk.get(0).getName().equals("a")) {
+        throw new QueryTimeoutException("timeout");
+      }
+      return chunk.size();
+    });
+
+    assertThat(result.getImported()).isEqualTo(1);
+    assertThat(result.getRejected()).isEqualTo(2);
+    assertThat(result.getRejectedRows()).hasSize(1);
+  }
+
+  // 每个有长度上限的列都逐行校验；超长字段（包括未闭合的引号）只拒绝这一行，不中断导入
+  @Test
+  void rejectsOverLongValuesAsSingleRows() throws Exception {
+    String csv = "name,ssn,credit_card_number\n"
+        + "ok,123-45-6789,4111111111111111\n"
+        + "long-ssn," + "1".repeat(21) + ",\n"
+        + "long-card,," + "4".repeat(31) + "\n"
+        + "huge," + "x".repeat(CsvRecordReader.MAX_FIELD_LENGTH + 1) + ",\n"
+        + "after,,\n";
+    List<Student> written = new ArrayList<>();
+    ImportResult result = new StudentCsvImporter(10, 10).importCsv(new StringReader(csv), chunk -> {
+      written.addAll(chunk);
+      return chunk.size();
+    });
+
+    assertThat(written).extracting(Student::getName).containsExactly("ok", "after");
+    assertThat(result.getRejectedRows()).extracting(RejectedRow::getLine).containsExactly(3L, 4L, 5L);
+    assertThat(result.getRejectedRows()).extracting(RejectedRow::getReason)
+        .containsExactly("ssn is longer than 20 characters", "credit_card_number is longer than 30 characters",
+            "Field longer than " + CsvRecordReader.MAX_FIELD_LENGTH + " characters");
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.springDemo.service.index;
+
+import com.example.springDemo.dto.StudentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentAgeIndexTest {
+
+  @Test
+  void answersRangesAndFollowsWrites() {
+    StudentAgeIndex index = new StudentAgeIndex();
+    assertThat(index.isReady()).isFalse();
+
+    index.load(() -> List.of(
+        new StudentDTO(3L, "carol", 19),
+        new StudentDTO(1L, "alice", 20),
+        new StudentDTO(2L, "bob", 20),
+        new StudentDTO(4L, "dave", 25)));
+    assertThat(index.idsInAgeRange(20, 24)).containsExactly(1L, 2L);
+    assertThat(index.idsInAgeRange(26, Integer.MAX_VALUE)).isEmpty();
+
+    index.upsert(5L, "erin", 20);
+    index.upsert(1L, "alice", 30);
+    index.remove(3L);
+
+    assertThat(index.size()).isEqualTo(4);
+    assertThat(index.idsInAgeRange(20, 20)).containsExactly(2L, 5L);
+    assertThat(index.summariesInAgeRange(21, Integer.MAX_VALUE))
+        .extracting(StudentDTO::getName)
+        .containsExactly("dave", "alice");
+  }
+
+  // load 的查询在锁外执行：查询期间读写照常进行，写入在切换前重放到新数据上
+  @Test
+  void writesDuringALoadAreKeptAndDoNotWait() {
+    StudentAgeIndex index = new StudentAgeIndex();
+    index.load(() -> List.of(new StudentDTO(1L, "alice", 20)));
+
+    index.load(() -> {
+      assertThat(index.idsInAgeRange(0, 100)).containsExactly(1L);
+      index.upsert(2L, "bob", 30);
+      index.remove(1L);
+      // 查询结果是写入之前的快照，仍然包含 1、不包含 2
+      return List.of(new StudentDTO(1L, "alice", 20), new StudentDTO(3L, "carol", 40));
+    });
+
+    assertThat(index.idsInAgeRange(0, 100)).containsExactly(2L, 3L);
+  }
+
+  // 大量单行写入会多次把增量和墓碑合并进主数组，结果要和简单的参照实现一致
+  @Test
+  void staysSortedAcrossDeltaMerges() {
+    Random random = new Random(42);
+    TreeMap<Long, Integer> expected = new TreeMap<>();
+    List<StudentDTO> rows = new ArrayList<>();
+    for (long id = 1; id <= 1000; id++) {
+      int age = 16 + random.nextInt(20);
+      rows.add(new StudentDTO(id, "s" + id, age));
+      expected.put(id, age);
+    }
+    StudentAgeIndex index = new StudentAgeIndex();
+    index.load(() -> rows);
+
+    for (int i = 0; i < 5000; i++) {
+      long id = 1 + random.nextInt(1500);
+      if (random.nextInt(3) == 0) {
+        index.remove(id);
+        expected.remove(id);
+      } else {
+        int age = 16 + random.nextInt(20);
+        index.upsert(id, "s" + id, age);
+        expected.put(id, age);
+      }
+    }
+
+    assertThat(index.size()).isEqualTo(expected.size());
+    long[] expectedIds = expected.entrySet().stream()
+        .filter(entry -> entry.getValue() >= 20 && entry.getValue() <= 25)
+        .sorted((a, b) -> a.getValue().equals(b.getValue())
+            ? Long.compare(a.getKey(), b.getKey()) : Integer.compare(a.getValue(), b.getValue()))
+        .mapToLong(entry -> entry.getKey())
+        .toArray();
+    assertThat(index.idsInAgeRange(20, 25)).containsExactly(expectedIds);
+  }
+}
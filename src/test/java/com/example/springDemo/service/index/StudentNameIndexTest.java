@@ -0,0 +1,107 @@
+package com.example.springDemo.service.index;
+
+import com.example.springDemo.dto.StudentDTO;
+import com.example.springDemo.dto.StudentNameMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentNameIndexTest {
+
+  private static List<StudentDTO> roster() {
+    return List.of(
+        new StudentDTO(1L, "Jonathan", 20),
+        new StudentDTO(2L, "Jon", 21),
+        new StudentDTO(3L, "Johnny", 22),
+        new StudentDTO(4L, "Maria", 23));
+  }
+
+  @Test
+  void prefixMatchesRankAboveFuzzyOnes() {
+    StudentNameIndex index = new StudentNameIndex();
+    assertThat(index.isReady()).isFalse();
+    index.load(StudentNameIndexTest::roster);
+
+    List<StudentNameMatch> matches = index.search("jon", 10);
+
+    // 前缀匹配 +1：Jon 完全相同排第一，Jonathan 其次；Johnny 只是相似
+    assertThat(matches).extracting(StudentNameMatch::getId).startsWith(2L, 1L);
+    assertThat(matches.get(0).getScore()).isGreaterThan(matches.get(1).getScore());
+    assertThat(matches).extracting(StudentNameMatch::getId).doesNotContain(4L);
+    assertThat(index.search("JONA", 10)).extracting(StudentNameMatch::getName).first().isEqualTo("Jonathan");
+    assertThat(index.search("jon", 1)).hasSize(1);
+  }
+
+  @Test
+  void followsUpsertsAndRemoves() {
+    StudentNameIndex index = new StudentNameIndex();
+    index.load(StudentNameIndexTest::roster);
+
+    index.upsert(4L, "Marianne");
+    index.upsertAll(List.of(new StudentDTO(5L, "Mariah", null), new StudentDTO(6L, "Jonas", null)));
+    index.remove(1L);
+
+    assertThat(index.size()).isEqualTo(5);
+    assertThat(index.search("maria", 10)).extracting(StudentNameMatch::getId).containsExactlyInAnyOrder(4L, 5L);
+    assertThat(index.search("jonathan", 10)).extracting(StudentNameMatch::getId).doesNotContain(1L);
+    assertThat(index.search("jonas", 10)).extracting(StudentNameMatch::getId).first().isEqualTo(6L);
+  }
+
+  @Test
+  void writesDuringALoadAreReplayedOntoTheNewIndex() {
+    StudentNameIndex index = new StudentNameIndex();
+    index.load(StudentNameIndexTest::roster);
+
+    index.load(() -> {
+      index.upsert(7L, "Priya");
+      index.remove(2L);
+      return roster();
+    });
+
+    assertThat(index.search("priya", 10)).extracting(StudentNameMatch::getId).containsExactly(7L);
+    assertThat(index.search("jon", 10)).extracting(StudentNameMatch::getId).doesNotContain(2L);
+  }
+
+  // 重建期间的搜索只会看到旧索引或新索引，不会看到空的或一半的索引
+  @Test
+  void searchesDuringAReloadSeeACompleteIndex() throws Exception {
+    List<StudentDTO> rows = new ArrayList<>();
+    for (long id = 1; id <= 2000; id++) {
+      rows.add(new StudentDTO(id, "student" + id, 20));
+    }
+    StudentNameIndex index = new StudentNameIndex();
+    index.load(() -> rows);
+
+    AtomicBoolean reloading = new AtomicBoolean(true);
+    CountDownLatch searching = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> incomplete = executor.submit(() -> {
+        int misses = 0;
+        searching.countDown();
+        while (reloading.get()) {
+          if (index.search("student1999", 1).isEmpty() || index.size() != rows.size()) {
+            misses++;
+          }
+        }
+        return misses;
+      });
+      searching.await();
+      for (int i = 0; i < 50; i++) {
+        index.load(() -> rows);
+      }
+      reloading.set(false);
+      assertThat(incomplete.get()).isZero();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.springDemo.service.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+  @Test
+  void rejectsWhenThePoolAndQueueAreFull() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blocking = new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        entered.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "hash";
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return true;
+      }
+    };
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, meterRegistry);
+
+    try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+      callers.submit(() -> encoder.encode("running"));
+      entered.await();
+      callers.submit(() -> encoder.encode("queued"));
+      while (encoder.getQueuedCount() == 0) {
+        Thread.onSpinWait();
+      }
+
+      assertThatThrownBy(() -> encoder.encode("rejected")).isInstanceOf(PasswordHashingRejectedException.class);
+      assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+      release.countDown();
+    } finally {
+      encoder.destroy();
+    }
+  }
+
+  @Test
+  void flagsUnprefixedAndLowerCostHashesForUpgrade() {
+    BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(6);
+    DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+    delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegating, 1, 4, new SimpleMeterRegistry());
+    try {
+      String current = encoder.encode("secret");
+      String legacy = new BCryptPasswordEncoder(6).encode("secret");
+      String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+
+      assertThat(current).startsWith("{bcrypt}");
+      assertThat(encoder.matches("secret", current)).isTrue();
+      assertThat(encoder.matches("secret", legacy)).isTrue();
+      assertThat(encoder.upgradeEncoding(current)).isFalse();
+      assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+      assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+    } finally {
+      encoder.destroy();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.springDemo.service.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingAuthenticationProviderTest {
+
+  private final AtomicInteger verifications = new AtomicInteger();
+  private final PasswordEncoder countingEncoder = new PasswordEncoder() {
+    @Override
+    public String encode(CharSequence rawPassword) {
+      return "hash:" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      verifications.incrementAndGet();
+      return encode(rawPassword).equals(encodedPassword);
+    }
+  };
+
+  private InMemoryUserDetailsManager users;
+  private CachingAuthenticationProvider provider;
+
+  @BeforeEach
+  void setUp() {
+    users = new InMemoryUserDetailsManager(User.withUsername("api").password("hash:secret").roles("ADMIN").build());
+    DaoAuthenticationProvider dao = new DaoAuthenticationProvider(users);
+    dao.setPasswordEncoder(countingEncoder);
+    provider = new CachingAuthenticationProvider(dao, users, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+  }
+
+  @Test
+  void repeatCredentialsAreVerifiedOnce() {
+    Authentication first = provider.authenticate(login("api", "secret"));
+    Authentication second = provider.authenticate(login("api", "secret"));
+
+    assertThat(first.isAuthenticated()).isTrue();
+    assertThat(second.isAuthenticated()).isTrue();
+    assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+    assertThat(verifications).hasValue(1);
+  }
+
+  @Test
+  void wrongPasswordIsNeverServedFromTheCache() {
+    provider.authenticate(login("api", "secret"));
+
+    assertThatThrownBy(() -> provider.authenticate(login("api", "guess"))).isInstanceOf(BadCredentialsException.class);
+    assertThat(verifications).hasValue(2);
+  }
+
+  @Test
+  void passwordOrRoleChangeInvalidatesTheEntry() {
+    provider.authenticate(login("api", "secret"));
+
+    users.updateUser(User.withUsername("api").password("hash:secret").roles("USER").build());
+    Authentication afterRoleChange = provider.authenticate(login("api", "secret"));
+    assertThat(afterRoleChange.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    assertThat(verifications).hasValue(2);
+
+    users.updateUser(User.withUsername("api").password("hash:rotated").roles("USER").build());
+    assertThatThrownBy(() -> provider.authenticate(login("api", "secret"))).isInstanceOf(BadCredentialsException.class);
+  }
+
+  private static UsernamePasswordAuthenticationToken login(String username, String password) {
+    return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+  }
+}
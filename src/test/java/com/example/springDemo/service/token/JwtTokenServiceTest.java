@@ -0,0 +1,64 @@
+package com.example.springDemo.service.token;
+
+import com.example.springDemo.config.JwtConfig;
+import com.example.springDemo.dto.TokenResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenServiceTest {
+
+  private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+  private final JwtConfig config = new JwtConfig();
+  private final SecretKey key = config.jwtSigningKey(SECRET);
+  private final JwtTokenService tokenService =
+      new JwtTokenService(config.jwtEncoder(key), "springDemo", Duration.ofMinutes(15));
+  private final JwtDecoder decoder = config.jwtDecoder(key, "springDemo");
+  private final JwtAuthoritiesConverter converter = new JwtAuthoritiesConverter();
+
+  @Test
+  void issuedTokenDecodesToTheSameUserAndAuthorities() {
+    TokenResponse response = tokenService.issue(admin());
+
+    assertThat(response.getTokenType()).isEqualTo("Bearer");
+    assertThat(response.getExpiresIn()).isEqualTo(900);
+
+    AbstractAuthenticationToken authentication = converter.convert(decoder.decode(response.getAccessToken()));
+    assertThat(authentication.getName()).isEqualTo("admin");
+    assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities())).containsExactly("ROLE_ADMIN");
+  }
+
+  @Test
+  void authoritiesAreSharedBetweenTokensWithTheSameRoles() {
+    var first = converter.convert(decoder.decode(tokenService.issue(admin()).getAccessToken()));
+    var second = converter.convert(decoder.decode(tokenService.issue(admin()).getAccessToken()));
+
+    // AbstractAuthenticationToken 会复制列表，所以比较的是其中的元素
+    assertThat(second.getAuthorities().iterator().next()).isSameAs(first.getAuthorities().iterator().next());
+  }
+
+  @Test
+  void tokensFromAnotherIssuerOrKeyAreRejected() {
+    String token = tokenService.issue(admin()).getAccessToken();
+
+    assertThatThrownBy(() -> config.jwtDecoder(key, "someoneElse").decode(token)).isInstanceOf(JwtException.class);
+    SecretKey otherKey = config.jwtSigningKey(Base64.getEncoder().encodeToString(new byte[] {
+        1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32}));
+    assertThatThrownBy(() -> config.jwtDecoder(otherKey, "springDemo").decode(token)).isInstanceOf(JwtException.class);
+  }
+
+  private static UsernamePasswordAuthenticationToken admin() {
+    return UsernamePasswordAuthenticationToken.authenticated("admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+  }
+}